@@ -1,14 +1,17 @@
 /* ──────────────────────────────────────────────────────────────────────────
  * Title: RoutePlannerApplication
  * Purpose: Spring Boot entry point for the Route Planner API.
- * Notes: Auto-configures web, JPA, and OpenAPI components via @SpringBootApplication.
+ * Notes: Auto-configures web, JPA, and OpenAPI components via @SpringBootApplication;
+ *        scheduling drives background jobs (e.g., seat hold expiry).
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RoutePlannerApplication {
 
     public static void main(String[] args) {
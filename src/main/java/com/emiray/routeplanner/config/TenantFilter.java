@@ -0,0 +1,45 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: TenantFilter
+ * Purpose: Bind every request to a tenant from the X-Tenant-Id header
+ *          (absent = default tenant) for the duration of the request.
+ * Notes: Malformed tenant ids are rejected with 400 before any controller
+ *        runs; the thread-local is always cleared afterwards.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.config;
+
+import com.emiray.routeplanner.service.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(TenantContext.HEADER);
+        if (tenant == null || tenant.isBlank()) {
+            tenant = TenantContext.DEFAULT;
+        } else if (!TenantContext.isValid(tenant.trim())) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    TenantContext.HEADER + " must match [a-z0-9][a-z0-9-]{0,31}");
+            return;
+        }
+        TenantContext.set(tenant.trim());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: TenantIdentifierResolver
+ * Purpose: Discriminator-based multi-tenancy for JPA: Hibernate stamps and
+ *          filters every @TenantId entity with the current tenant.
+ * Notes: Registered through HibernatePropertiesCustomizer; the tenant comes
+ *        from TenantContext (default outside requests, e.g. data.sql/jobs).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.config;
+
+import com.emiray.routeplanner.service.TenantContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
@@ -0,0 +1,121 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: DiagnosticsController
+ * Purpose: Internal read-only endpoints exposing runtime counters of the
+ *          route-serving pipeline (query coalescing, engines, shadow mode,
+ *          slow-query log, reachability index, route watches,
+ *          search-log pipeline, per-tenant network state).
+ * Notes: Hidden from Swagger like SelfTestController; not a public contract.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.controller;
+
+import com.emiray.routeplanner.service.NetworkState;
+import com.emiray.routeplanner.service.ReachabilityIndex;
+import com.emiray.routeplanner.service.RouteEngineRegistry;
+import com.emiray.routeplanner.service.RouteQueryCoalescer;
+import com.emiray.routeplanner.service.RouteSearchLogWriter;
+import com.emiray.routeplanner.service.RouteWatchService;
+import com.emiray.routeplanner.service.ShadowRouteComparator;
+import com.emiray.routeplanner.service.SlowQueryLog;
+import org.springframework.http.ResponseEntity;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Hidden // Hide from Swagger UI; internal-only helper.
+@RestController
+@RequestMapping("/api/_diagnostics")
+public class DiagnosticsController {
+
+    private final RouteQueryCoalescer coalescer;
+    private final RouteEngineRegistry engines;
+    private final ShadowRouteComparator shadow;
+    private final SlowQueryLog slowQueryLog;
+    private final ReachabilityIndex reachability;
+    private final RouteWatchService watches;
+    private final RouteSearchLogWriter searchLog;
+    private final NetworkState networkState;
+
+    public DiagnosticsController(RouteQueryCoalescer coalescer,
+                                 RouteEngineRegistry engines,
+                                 ShadowRouteComparator shadow,
+                                 SlowQueryLog slowQueryLog,
+                                 ReachabilityIndex reachability,
+                                 RouteWatchService watches,
+                                 RouteSearchLogWriter searchLog,
+                                 NetworkState networkState) {
+        this.coalescer = coalescer;
+        this.engines = engines;
+        this.shadow = shadow;
+        this.slowQueryLog = slowQueryLog;
+        this.reachability = reachability;
+        this.watches = watches;
+        this.searchLog = searchLog;
+        this.networkState = networkState;
+    }
+
+    // ── Read ────────────────────────────────────────────────────────────────
+
+    /** Coalescing counters: leaders, joined waiters, timeouts, current in-flight keys. */
+    @GetMapping("/coalescing")
+    public RouteQueryCoalescer.Stats coalescing() {
+        return coalescer.stats();
+    }
+
+    /** Available route engines and the configured primary. */
+    @GetMapping("/engines")
+    public Map<String, Object> engines() {
+        return Map.of(
+                "primary", engines.primary().name(),
+                "available", engines.names()
+        );
+    }
+
+    /** Shadow-mode comparison results: matches, mismatches, relative latency. */
+    @GetMapping("/shadow")
+    public ShadowRouteComparator.Stats shadow() {
+        return shadow.stats();
+    }
+
+    /** Slowest captured route searches (above routes.slow-query.threshold-ms). */
+    @GetMapping("/slow-queries")
+    public Map<String, Object> slowQueries(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("thresholdMillis", slowQueryLog.thresholdMillis());
+        out.put("queries", slowQueryLog.worst(limit));
+        return out;
+    }
+
+    /** Reachability index size and maintenance counters. */
+    @GetMapping("/reachability")
+    public ReachabilityIndex.Stats reachability() {
+        return reachability.stats();
+    }
+
+    /** SSE route watches: subscribers and incremental recomputation counters. */
+    @GetMapping("/watches")
+    public RouteWatchService.Stats watches() {
+        return watches.stats();
+    }
+
+    /** Search-log pipeline: buffered, sampled-out, dropped and written entries. */
+    @GetMapping("/search-log")
+    public RouteSearchLogWriter.Stats searchLog() {
+        return searchLog.stats();
+    }
+
+    /** Loaded tenant networks with estimated size, idle time and eviction counters. */
+    @GetMapping("/tenants")
+    public NetworkState.Stats tenants() {
+        return networkState.stats();
+    }
+
+    // ── Write ───────────────────────────────────────────────────────────────
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQueryLog.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
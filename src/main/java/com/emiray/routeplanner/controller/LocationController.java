@@ -1,20 +1,27 @@
 /* ──────────────────────────────────────────────────────────────────────────
  * Title: LocationController
  * Purpose: Exposes CRUD endpoints for Location entities.
- * Notes: Keeps controller thin; delegates persistence to LocationRepository.
+ * Notes: Keeps controller thin; delegates persistence to LocationRepository
+ *        and proximity lookups to NearbyLocationService.
+ *        Writes publish a NetworkChangedEvent so in-memory route state refreshes.
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner.controller;
 
 import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.LocationDtos;
 import com.emiray.routeplanner.repository.LocationRepository;
+import com.emiray.routeplanner.service.NearbyLocationService;
+import com.emiray.routeplanner.service.NetworkChangedEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 
 @Tag(
         name = "Locations",
@@ -25,9 +32,15 @@ import java.util.List;
 public class LocationController {
 
     private final LocationRepository repo;
+    private final ApplicationEventPublisher events;
+    private final NearbyLocationService nearbyService;
 
-    public LocationController(LocationRepository repo) {
+    public LocationController(LocationRepository repo,
+                              ApplicationEventPublisher events,
+                              NearbyLocationService nearbyService) {
         this.repo = repo;
+        this.events = events;
+        this.nearbyService = nearbyService;
     }
 
     // ── Read ────────────────────────────────────────────────────────────────
@@ -38,6 +51,20 @@ public class LocationController {
         return repo.findAll();
     }
 
+    @Operation(
+            summary = "Locations near a coordinate",
+            description = "Nearest first, by great-circle distance; only locations with coordinates."
+    )
+    @GetMapping("/nearby")
+    public List<LocationDtos.Nearby> nearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "25") double radiusKm,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return nearbyService.nearby(lat, lon, radiusKm, limit);
+    }
+
     @Operation(summary = "Get a location by ID")
     @GetMapping("/{id}")
     public ResponseEntity<Location> byId(@PathVariable Long id) {
@@ -52,6 +79,7 @@ public class LocationController {
     @PostMapping
     public ResponseEntity<Location> create(@Valid @RequestBody Location body) {
         Location saved = repo.save(body);
+        events.publishEvent(new NetworkChangedEvent(Set.of(saved.getId())));
         return ResponseEntity
                 .created(URI.create("/api/locations/" + saved.getId()))
                 .body(saved);
@@ -66,7 +94,11 @@ public class LocationController {
             existing.setCountry(body.getCountry());
             existing.setCity(body.getCity());
             existing.setLocationCode(body.getLocationCode());
-            return ResponseEntity.ok(repo.save(existing));
+            existing.setLatitude(body.getLatitude());
+            existing.setLongitude(body.getLongitude());
+            Location saved = repo.save(existing);
+            events.publishEvent(new NetworkChangedEvent(Set.of(saved.getId())));
+            return ResponseEntity.ok(saved);
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -75,6 +107,7 @@ public class LocationController {
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (!repo.existsById(id)) return ResponseEntity.notFound().build();
         repo.deleteById(id);
+        events.publishEvent(new NetworkChangedEvent(Set.of(id)));
         return ResponseEntity.noContent().build();
     }
 }
@@ -7,12 +7,19 @@
 package com.emiray.routeplanner.controller;
 
 import com.emiray.routeplanner.dto.RouteDtos;
+import com.emiray.routeplanner.service.RouteCalendarService;
+import com.emiray.routeplanner.service.RouteOverlay;
+import com.emiray.routeplanner.service.RouteQuery;
 import com.emiray.routeplanner.service.RouteService;
+import com.emiray.routeplanner.service.RouteWatchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -26,9 +33,15 @@ import java.util.List;
 public class RoutesController {
 
     private final RouteService routeService;
+    private final RouteCalendarService calendarService;
+    private final RouteWatchService watchService;
 
-    public RoutesController(RouteService routeService) {
+    public RoutesController(RouteService routeService,
+                            RouteCalendarService calendarService,
+                            RouteWatchService watchService) {
         this.routeService = routeService;
+        this.calendarService = calendarService;
+        this.watchService = watchService;
     }
 
     // ── Read ────────────────────────────────────────────────────────────────
@@ -42,18 +55,109 @@ public class RoutesController {
                     (3) Any before/after transfers must be non-FLIGHT,
                     (4) For chained legs, arrival == next departure.
                     Optional: pass `date` to allow service-level filtering if supported.
+                    Optional: `X-Route-Engine` header selects a search engine (e.g., memory, sql).
+                    Either end may be a city or country selector (`city:Istanbul`, `country:TR`)
+                    to search from/to all matching locations at once, or `near:<lat>,<lon>,<km>`
+                    for locations within a radius; near: results are ordered by great-circle distance.
                     """
     )
     @GetMapping
     public List<RouteDtos.Route> routes(
-            @Parameter(description = "Origin location code (e.g., IST, TAK)")
+            @Parameter(description = "Origin location code (e.g., IST, TAK) or city:<name> / country:<code> / near:<lat>,<lon>,<km>")
             @RequestParam String origin,
-            @Parameter(description = "Destination location code (e.g., LHR, WEM)")
+            @Parameter(description = "Destination location code (e.g., LHR, WEM) or city:<name> / country:<code> / near:<lat>,<lon>,<km>")
             @RequestParam String destination,
             @Parameter(description = "Optional travel date (YYYY-MM-DD). Service may ignore if not applicable.")
             @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(description = "Optional engine override (defaults to routes.engine).")
+            @RequestHeader(name = "X-Route-Engine", required = false) String engine
+    ) {
+        return routeService.findRoutes(new RouteQuery(origin, destination, date, engine));
+    }
+
+    @Operation(
+            summary = "Check whether any valid route exists",
+            description = "Constant-time answer from the precomputed reachability index."
+    )
+    @GetMapping("/exists")
+    public RouteDtos.Existence exists(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return routeService.routeExists(origin, destination, date);
+    }
+
+    @Operation(
+            summary = "Count destinations reachable from an origin",
+            description = "Number of locations reachable by at least one valid route (optionally on a date)."
+    )
+    @GetMapping("/reachable")
+    public RouteDtos.Reachability reachable(
+            @RequestParam String origin,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return routeService.reachableCount(origin, date);
+    }
+
+    @Operation(
+            summary = "Availability calendar for a date range",
+            description = """
+                    Returns, for each date in [from, to], the number of valid routes
+                    (and the routes themselves when includeRoutes=true). Computed in one pass
+                    using each route's operating-day mask.
+                    """
+    )
+    @GetMapping("/calendar")
+    public List<RouteDtos.CalendarDay> calendar(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @Parameter(description = "First date (YYYY-MM-DD), inclusive")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last date (YYYY-MM-DD), inclusive")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean includeRoutes
+    ) {
+        return calendarService.calendar(origin, destination, from, to, includeRoutes);
+    }
+
+    @Operation(
+            summary = "What-if route search",
+            description = """
+                    Same rules as GET /api/routes, evaluated on the live network with a temporary
+                    overlay: transportations to exclude, locations to avoid and ad-hoc extra links.
+                    Nothing is persisted; extra-link legs are returned without a transportationId.
+                    """
+    )
+    @PostMapping("/what-if")
+    public List<RouteDtos.Route> whatIf(@Valid @RequestBody RouteDtos.WhatIfRequest req) {
+        List<RouteOverlay.ExtraLink> extraLinks = req.extraLinks() == null ? List.of() : req.extraLinks().stream()
+                .map(l -> new RouteOverlay.ExtraLink(l.originCode(), l.destinationCode(), l.type(), l.operatingDays()))
+                .toList();
+        RouteOverlay overlay = new RouteOverlay(req.excludeTransportationIds(), req.avoidLocations(), extraLinks);
+        return routeService.findRoutes(new RouteQuery(req.origin(), req.destination(), req.date(), null, overlay));
+    }
+
+    // ── Stream ──────────────────────────────────────────────────────────────
+
+    @Operation(
+            summary = "Watch a pair for route changes (Server-Sent Events)",
+            description = """
+                    Emits a `snapshot` event with the current routes, then a `diff` event
+                    (added/removed routes) whenever a network change alters them.
+                    Pairs not near a changed location are not recomputed.
+                    """
+    )
+    @GetMapping(path = "/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter watch(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     ) {
-        return routeService.findRoutes(origin, destination, date);
+        return watchService.subscribe(origin, destination, date);
     }
 }
@@ -0,0 +1,94 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SearchAnalyticsController
+ * Purpose: Read-only analytics over logged route searches: most searched
+ *          pairs, pairs that return no route, and the latency distribution.
+ * Notes: Aggregates read route_search_log (written asynchronously, so the
+ *        last flush interval may not be included yet). Window (1h..1 year)
+ *        and limit (1..500) are validated; violations answer 400.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.controller;
+
+import com.emiray.routeplanner.dto.SearchLogDtos;
+import com.emiray.routeplanner.repository.RouteSearchLogRepository;
+import com.emiray.routeplanner.service.RouteSearchLogWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Tag(
+        name = "Search analytics",
+        description = "Aggregates over logged route searches."
+)
+@RestController
+@Validated
+@RequestMapping("/api/analytics/searches")
+public class SearchAnalyticsController {
+
+    private static final long MAX_HOURS = 24 * 366;
+    private static final int MAX_LIMIT = 500;
+
+    private final RouteSearchLogRepository repo;
+    private final RouteSearchLogWriter writer;
+
+    public SearchAnalyticsController(RouteSearchLogRepository repo, RouteSearchLogWriter writer) {
+        this.repo = repo;
+        this.writer = writer;
+    }
+
+    // ── Read ────────────────────────────────────────────────────────────────
+
+    @Operation(summary = "Most searched origin/destination pairs")
+    @GetMapping("/top-pairs")
+    public List<SearchLogDtos.PairStats> topPairs(
+            @Parameter(description = "Look-back window in hours (1..8784)")
+            @RequestParam(defaultValue = "24") @Min(1) @Max(MAX_HOURS) long hours,
+            @Parameter(description = "Maximum number of pairs (1..500)")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_LIMIT) int limit
+    ) {
+        return toStats(repo.topPairs(since(hours), PageRequest.of(0, limit)));
+    }
+
+    @Operation(summary = "Pairs most often searched without any valid route")
+    @GetMapping("/zero-result-pairs")
+    public List<SearchLogDtos.PairStats> zeroResultPairs(
+            @Parameter(description = "Look-back window in hours (1..8784)")
+            @RequestParam(defaultValue = "24") @Min(1) @Max(MAX_HOURS) long hours,
+            @Parameter(description = "Maximum number of pairs (1..500)")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_LIMIT) int limit
+    ) {
+        return toStats(repo.zeroResultPairs(since(hours), PageRequest.of(0, limit)));
+    }
+
+    @Operation(summary = "Latency distribution of route searches since startup")
+    @GetMapping("/latency")
+    public SearchLogDtos.LatencyHistogram latency() {
+        return writer.latencyHistogram();
+    }
+
+    // ── Mapping ─────────────────────────────────────────────────────────────
+
+    private static Instant since(long hours) {
+        return Instant.now().minus(Duration.ofHours(hours));
+    }
+
+    private static List<SearchLogDtos.PairStats> toStats(List<RouteSearchLogRepository.PairAggregate> rows) {
+        return rows.stream()
+                .map(r -> new SearchLogDtos.PairStats(
+                        r.getOrigin(),
+                        r.getDestination(),
+                        r.getSearches() == null ? 0 : r.getSearches(),
+                        r.getZeroResults() == null ? 0 : r.getZeroResults(),
+                        r.getAvgLatencyMicros() == null ? 0.0 : r.getAvgLatencyMicros() / 1_000.0
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SeatController
+ * Purpose: Seat holds on route legs (hold / confirm / release) and per-day
+ *          availability of a transportation.
+ * Notes: Controller stays thin; delegates logic to SeatInventoryService.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.controller;
+
+import com.emiray.routeplanner.dto.SeatDtos;
+import com.emiray.routeplanner.service.SeatInventoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+@Tag(
+        name = "Seats",
+        description = "Seat inventory: all-or-nothing holds across a route's legs, confirmation and release."
+)
+@RestController
+@RequestMapping("/api/seats")
+public class SeatController {
+
+    private final SeatInventoryService seats;
+
+    public SeatController(SeatInventoryService seats) {
+        this.seats = seats;
+    }
+
+    // ── Read ────────────────────────────────────────────────────────────────
+
+    @Operation(summary = "Seat availability of a transportation on a date")
+    @GetMapping("/availability")
+    public SeatDtos.Availability availability(
+            @RequestParam Long transportationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return seats.availability(transportationId, date);
+    }
+
+    // ── Write ───────────────────────────────────────────────────────────────
+
+    @Operation(
+            summary = "Hold seats on all legs of a route",
+            description = "All-or-nothing: 409 when any leg lacks capacity. Holds expire unless confirmed."
+    )
+    @PostMapping("/holds")
+    public ResponseEntity<SeatDtos.HoldResponse> hold(@Valid @RequestBody SeatDtos.HoldRequest req) {
+        SeatDtos.HoldResponse hold = seats.hold(req);
+        return ResponseEntity
+                .created(URI.create("/api/seats/holds/" + hold.holdId()))
+                .body(hold);
+    }
+
+    @Operation(summary = "Confirm a hold (410 when it has expired)")
+    @PostMapping("/holds/{holdId}/confirm")
+    public SeatDtos.HoldResponse confirm(@PathVariable String holdId) {
+        return seats.confirm(holdId);
+    }
+
+    @Operation(summary = "Release a hold")
+    @DeleteMapping("/holds/{holdId}")
+    public SeatDtos.HoldResponse release(@PathVariable String holdId) {
+        return seats.release(holdId);
+    }
+}
@@ -0,0 +1,47 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShardController
+ * Purpose: Instance-to-instance endpoints for region-sharded route serving.
+ * Notes: Hidden from Swagger; answers only for regions owned by this instance.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.controller;
+
+import com.emiray.routeplanner.dto.ShardDtos;
+import com.emiray.routeplanner.service.ShardService;
+import com.emiray.routeplanner.service.ShardTopology;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Hidden // Hide from Swagger UI; internal-only helper.
+@RestController
+@RequestMapping("/api/_shard")
+public class ShardController {
+
+    private final ShardService shardService;
+    private final ShardTopology topology;
+
+    public ShardController(ShardService shardService, ShardTopology topology) {
+        this.shardService = shardService;
+        this.topology = topology;
+    }
+
+    // ── Read ────────────────────────────────────────────────────────────────
+
+    /** Ground links departing from (OUT) or arriving at (IN) an owned location. */
+    @GetMapping("/ground-links")
+    public List<ShardDtos.GroundLink> groundLinks(@RequestParam String location,
+                                                  @RequestParam ShardDtos.Direction direction) {
+        return shardService.ownedGroundLinks(location, direction);
+    }
+
+    /** Regions owned here and the configured peers. */
+    @GetMapping("/topology")
+    public Map<String, Object> topology() {
+        return Map.of(
+                "ownedRegions", topology.ownedRegions(),
+                "peers", topology.peers()
+        );
+    }
+}
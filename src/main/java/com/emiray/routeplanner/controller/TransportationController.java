@@ -80,7 +80,7 @@ public class TransportationController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (!repo.existsById(id)) return ResponseEntity.notFound().build();
-        repo.deleteById(id);
+        service.delete(id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -2,19 +2,24 @@
  * Title: Location
  * Purpose: JPA entity representing a location (airport, city, or point of interest).
  * Notes: Validated with Bean Validation; normalized before persistence.
+ *        Tenant-scoped (Hibernate @TenantId): codes are unique per tenant.
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner.domain;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 @Entity
 @Table(
         name = "locations",
         indexes = {
-                @Index(name = "idx_location_code", columnList = "locationCode", unique = true)
+                @Index(name = "idx_location_tenant_code", columnList = "tenant_id, locationCode", unique = true)
         })
 public class Location {
 
@@ -22,6 +27,12 @@ public class Location {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** Owning tenant; stamped and filtered by Hibernate from TenantContext. */
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 32, updatable = false)
+    private String tenantId;
+
     @Column(nullable = false)
     private String name;
 
@@ -37,9 +48,19 @@ public class Location {
             regexp = "^[A-Z0-9]{3,10}$",
             message = "locationCode must be 3-10 uppercase letters/digits"
     )
-    @Column(nullable = false, unique = true, length = 10)
+    @Column(nullable = false, length = 10)
     private String locationCode;
 
+    /** WGS84 latitude in degrees; optional (locations without it are not geo-indexed). */
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    /** WGS84 longitude in degrees; optional. */
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
     // ── Lifecycle Callbacks ─────────────────────────────────────────────────
     @PrePersist
     @PreUpdate
@@ -56,6 +77,8 @@ public class Location {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public String getTenantId() { return tenantId; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -67,4 +90,10 @@ public class Location {
 
     public String getLocationCode() { return locationCode; }
     public void setLocationCode(String locationCode) { this.locationCode = locationCode; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 }
@@ -0,0 +1,58 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: OperatingDaysConverter
+ * Purpose: Persist Transportation operating days (1=Mon ... 7=Sun) as a
+ *          compact comma-separated column, e.g. "1,3,5".
+ * Notes: null/empty list <-> NULL column (runs every day). Writes are
+ *        validated by TransportationService. On read, a column holding any
+ *        token that is not a day number 1..7 is logged and read as every day
+ *        (the RouteRules rule for malformed lists), so one bad row cannot
+ *        fail a query or a network rebuild.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Converter
+public class OperatingDaysConverter implements AttributeConverter<List<Integer>, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(OperatingDaysConverter.class);
+
+    @Override
+    public String convertToDatabaseColumn(List<Integer> days) {
+        if (days == null || days.isEmpty()) return null;
+        return days.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    @Override
+    public List<Integer> convertToEntityAttribute(String column) {
+        List<Integer> days = new ArrayList<>();
+        if (column == null || column.isBlank()) return days;
+        for (String part : column.split(",")) {
+            if (part.isBlank()) continue;
+            Integer day = parseDay(part.trim());
+            if (day == null) {
+                log.warn("Malformed operating day '{}' in '{}'; treating as every day", part.trim(), column);
+                return new ArrayList<>();
+            }
+            days.add(day);
+        }
+        return days;
+    }
+
+    /** Day number 1..7, or null when the token is not one. */
+    private static Integer parseDay(String token) {
+        try {
+            int day = Integer.parseInt(token);
+            return day >= 1 && day <= 7 ? day : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
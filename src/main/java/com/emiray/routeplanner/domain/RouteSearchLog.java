@@ -0,0 +1,86 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSearchLog
+ * Purpose: JPA entity for one logged route search (analytics).
+ * Notes: Rows are inserted in batches by RouteSearchLogWriter via JDBC; the
+ *        entity defines the schema and backs the aggregate queries, which
+ *        Hibernate scopes to the current tenant (@TenantId).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "route_search_log",
+        indexes = {
+                @Index(name = "idx_route_search_log_time", columnList = "searched_at"),
+                @Index(name = "idx_route_search_log_pair", columnList = "origin_code, destination_code")
+        }
+)
+public class RouteSearchLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 32, updatable = false)
+    private String tenantId;
+
+    @Column(name = "searched_at", nullable = false)
+    private Instant searchedAt;
+
+    /** Location code or city/country selector as queried. */
+    @Column(name = "origin_code", nullable = false, length = 64)
+    private String originCode;
+
+    @Column(name = "destination_code", nullable = false, length = 64)
+    private String destinationCode;
+
+    /** Requested travel date; null when the search had no date filter. */
+    @Column(name = "travel_date")
+    private LocalDate travelDate;
+
+    @Column(name = "result_count", nullable = false)
+    private int resultCount;
+
+    @Column(name = "latency_micros", nullable = false)
+    private long latencyMicros;
+
+    @Column(nullable = false, length = 16)
+    private String engine;
+
+    // ── Getters & Setters ───────────────────────────────────────────────────
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTenantId() { return tenantId; }
+
+    public Instant getSearchedAt() { return searchedAt; }
+    public void setSearchedAt(Instant searchedAt) { this.searchedAt = searchedAt; }
+
+    public String getOriginCode() { return originCode; }
+    public void setOriginCode(String originCode) { this.originCode = originCode; }
+
+    public String getDestinationCode() { return destinationCode; }
+    public void setDestinationCode(String destinationCode) { this.destinationCode = destinationCode; }
+
+    public LocalDate getTravelDate() { return travelDate; }
+    public void setTravelDate(LocalDate travelDate) { this.travelDate = travelDate; }
+
+    public int getResultCount() { return resultCount; }
+    public void setResultCount(int resultCount) { this.resultCount = resultCount; }
+
+    public long getLatencyMicros() { return latencyMicros; }
+    public void setLatencyMicros(long latencyMicros) { this.latencyMicros = latencyMicros; }
+
+    public String getEngine() { return engine; }
+    public void setEngine(String engine) { this.engine = engine; }
+}
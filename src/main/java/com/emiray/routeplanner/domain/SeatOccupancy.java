@@ -0,0 +1,67 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SeatOccupancy
+ * Purpose: JPA entity persisting per-day seat usage of a transportation.
+ * Notes: Written behind by SeatInventoryService (the in-memory counters are
+ *        authoritative while running); plain transportation id column, so
+ *        deleting a transportation never blocks on occupancy rows.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "seat_occupancy",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_seat_occupancy_t_date",
+                        columnNames = {"transportation_id", "travel_date"}
+                )
+        }
+)
+public class SeatOccupancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transportation_id", nullable = false)
+    private Long transportationId;
+
+    @Column(name = "travel_date", nullable = false)
+    private LocalDate travelDate;
+
+    /** Seats under an active (unconfirmed) hold at the time of the last flush. */
+    @Column(nullable = false)
+    private int held;
+
+    /** Seats sold (confirmed holds). */
+    @Column(nullable = false)
+    private int confirmed;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // ── Getters & Setters ───────────────────────────────────────────────────
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getTransportationId() { return transportationId; }
+    public void setTransportationId(Long transportationId) { this.transportationId = transportationId; }
+
+    public LocalDate getTravelDate() { return travelDate; }
+    public void setTravelDate(LocalDate travelDate) { this.travelDate = travelDate; }
+
+    public int getHeld() { return held; }
+    public void setHeld(int held) { this.held = held; }
+
+    public int getConfirmed() { return confirmed; }
+    public void setConfirmed(int confirmed) { this.confirmed = confirmed; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
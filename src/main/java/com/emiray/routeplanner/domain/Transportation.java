@@ -1,12 +1,20 @@
 /* ──────────────────────────────────────────────────────────────────────────
  * Title: Transportation
  * Purpose: JPA entity representing a transportation link between two locations.
- * Notes: Uniqueness enforced on (origin, destination, type).
+ * Notes: Uniqueness enforced on (origin, destination, type); origin/destination
+ *        indexes back adjacency lookups and the recursive SQL route search.
+ *        Tenant-scoped (Hibernate @TenantId), like its locations.
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner.domain;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.util.List;
 
 @Entity
 @Table(
@@ -16,6 +24,10 @@ import jakarta.validation.constraints.NotNull;
                         name = "uk_transportation_o_d_type",
                         columnNames = {"origin_id", "destination_id", "type"}
                 )
+        },
+        indexes = {
+                @Index(name = "idx_transportation_origin_type", columnList = "origin_id, type, destination_id"),
+                @Index(name = "idx_transportation_destination", columnList = "destination_id, type, origin_id")
         }
 )
 public class Transportation {
@@ -24,6 +36,12 @@ public class Transportation {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** Owning tenant; stamped and filtered by Hibernate from TenantContext. */
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 32, updatable = false)
+    private String tenantId;
+
     // ── Relationships ──────────────────────────────────────────────────────
 
     /** Departure location (mandatory). */
@@ -42,11 +60,23 @@ public class Transportation {
     @Column(nullable = false, length = 16)
     private TransportationType type;
 
+    /** Operating days (1=Mon ... 7=Sun); null/empty means it runs every day. */
+    @Convert(converter = OperatingDaysConverter.class)
+    @Column(name = "operating_days", length = 16)
+    private List<@Min(1) @Max(7) Integer> operatingDays;
+
+    /** Seats per operating day; null means unlimited (no seat inventory). */
+    @Min(1)
+    @Column(name = "capacity")
+    private Integer capacity;
+
     // ── Getters & Setters ───────────────────────────────────────────────────
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public String getTenantId() { return tenantId; }
+
     public Location getOrigin() { return origin; }
     public void setOrigin(Location origin) { this.origin = origin; }
 
@@ -55,4 +85,10 @@ public class Transportation {
 
     public TransportationType getType() { return type; }
     public void setType(TransportationType type) { this.type = type; }
+
+    public List<Integer> getOperatingDays() { return operatingDays; }
+    public void setOperatingDays(List<Integer> operatingDays) { this.operatingDays = operatingDays; }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
 }
@@ -0,0 +1,21 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: LocationDtos
+ * Purpose: Response DTOs for location queries beyond plain CRUD.
+ * Notes: CRUD endpoints return the Location entity itself.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.dto;
+
+public class LocationDtos {
+
+    /** A location near a queried point, with its great-circle distance. */
+    public record Nearby(
+            Long id,
+            String locationCode,
+            String name,
+            String city,
+            String country,
+            double latitude,
+            double longitude,
+            double distanceKm
+    ) {}
+}
@@ -6,7 +6,15 @@
 package com.emiray.routeplanner.dto;
 
 import com.emiray.routeplanner.domain.TransportationType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 public class RouteDtos {
 
@@ -22,4 +30,55 @@ public class RouteDtos {
     public record Route(
             List<Leg> legs
     ) {}
+
+    /** Whether at least one valid route exists (answered from the reachability index). */
+    public record Existence(
+            String origin,
+            String destination,
+            LocalDate date,
+            boolean exists
+    ) {}
+
+    /** Number of destinations reachable from an origin by at least one valid route. */
+    public record Reachability(
+            String origin,
+            LocalDate date,
+            int destinations
+    ) {}
+
+    /** Availability of one calendar day; routes are included only on request. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CalendarDay(
+            LocalDate date,
+            int routeCount,
+            List<Route> routes
+    ) {}
+
+    /** What-if search: the live network with some links removed/added, for this query only. */
+    public record WhatIfRequest(
+            @NotBlank String origin,
+            @NotBlank String destination,
+            LocalDate date,
+            Set<Long> excludeTransportationIds,
+            Set<String> avoidLocations,
+            List<@Valid ExtraLink> extraLinks
+    ) {}
+
+    /** A temporary link that exists only within a what-if search (legs carry no id). */
+    public record ExtraLink(
+            @NotBlank String originCode,
+            @NotBlank String destinationCode,
+            @NotNull TransportationType type,
+            List<@Min(1) @Max(7) Integer> operatingDays // optional; null/empty = every day
+    ) {}
+
+    /** Change of a watched pair's route set (SSE payload; a snapshot has only "added"). */
+    public record RouteDiff(
+            String origin,
+            String destination,
+            LocalDate date,
+            long networkVersion,
+            List<Route> added,
+            List<Route> removed
+    ) {}
 }
@@ -0,0 +1,27 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SearchLogDtos
+ * Purpose: Response DTOs for route search analytics.
+ * Notes: Pair aggregates come from the route_search_log table; the latency
+ *        histogram is kept in memory since startup.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.dto;
+
+import java.util.Map;
+
+public class SearchLogDtos {
+
+    /** Search volume of one origin/destination pair. */
+    public record PairStats(
+            String origin,
+            String destination,
+            long searches,
+            long zeroResultSearches,
+            double avgLatencyMillis
+    ) {}
+
+    /** Latency distribution of route searches (bucket upper bound in ms → count). */
+    public record LatencyHistogram(
+            long searches,
+            Map<String, Long> buckets
+    ) {}
+}
@@ -0,0 +1,47 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SeatDtos
+ * Purpose: Request/response DTOs for seat holds and availability.
+ * Notes: A hold covers all legs of one route on one travel date.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public class SeatDtos {
+
+    /** Hold seats on every leg of a route (all-or-nothing). */
+    public record HoldRequest(
+            @NotEmpty @Size(max = 3) List<@NotNull Long> transportationIds,
+            @NotNull LocalDate date,
+            @Min(1) @Max(9) int seats
+    ) {}
+
+    /** A hold and its lifecycle state. */
+    public record HoldResponse(
+            String holdId,
+            List<Long> transportationIds,
+            LocalDate date,
+            int seats,
+            Instant expiresAt,
+            String status // HELD, CONFIRMED, RELEASED
+    ) {}
+
+    /** Seat usage of one transportation on one day; capacity null = unlimited. */
+    public record Availability(
+            Long transportationId,
+            LocalDate date,
+            Integer capacity,
+            int held,
+            int confirmed,
+            Integer available,
+            int overbooked // seats held/sold beyond a capacity that was lowered afterwards
+    ) {}
+}
@@ -0,0 +1,29 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShardDtos
+ * Purpose: Payloads exchanged between route-planner instances when routes
+ *          are served region-sharded (scatter-gather).
+ * Notes: Internal wire format; not part of the public API.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.dto;
+
+import com.emiray.routeplanner.domain.TransportationType;
+
+import java.util.List;
+
+public class ShardDtos {
+
+    /** Which side of a location's ground neighborhood to fetch. */
+    public enum Direction {
+        OUT, // ground links departing from the location
+        IN   // ground links arriving at the location
+    }
+
+    /** A non-FLIGHT link owned by the shard of its region. */
+    public record GroundLink(
+            Long transportationId,
+            String originCode,
+            String destinationCode,
+            TransportationType type,
+            List<Integer> operatingDays
+    ) {}
+}
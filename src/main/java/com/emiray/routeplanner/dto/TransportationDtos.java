@@ -6,7 +6,12 @@
 package com.emiray.routeplanner.dto;
 
 import com.emiray.routeplanner.domain.TransportationType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
 
 public class TransportationDtos {
 
@@ -14,7 +19,9 @@ public class TransportationDtos {
     public record UpsertRequest(
             @NotNull Long originId,
             @NotNull Long destinationId,
-            @NotNull TransportationType type
+            @NotNull TransportationType type,
+            @Size(max = 7) List<@NotNull @Min(1) @Max(7) Integer> operatingDays, // optional; null/empty = every day
+            @Min(1) Integer capacity // optional; seats per day, null = unlimited
     ) {}
 
     /** Response DTO returned after create/update/read operations. */
@@ -24,6 +31,8 @@ public class TransportationDtos {
             String originCode,
             Long destinationId,
             String destinationCode,
-            TransportationType type
+            TransportationType type,
+            List<Integer> operatingDays,
+            Integer capacity
     ) {}
 }
@@ -0,0 +1,56 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSearchLogRepository
+ * Purpose: Spring Data JPA repository for RouteSearchLog with per-pair
+ *          aggregate queries (most searched, most often without results).
+ * Notes: Aggregates use an interface projection; limit via Pageable.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.repository;
+
+import com.emiray.routeplanner.domain.RouteSearchLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RouteSearchLogRepository extends JpaRepository<RouteSearchLog, Long> {
+
+    /** Aggregated searches of one origin/destination pair. */
+    interface PairAggregate {
+        String getOrigin();
+        String getDestination();
+        Long getSearches();
+        Long getZeroResults();
+        Double getAvgLatencyMicros();
+    }
+
+    /** Pairs ordered by number of searches since the given instant. */
+    @Query("""
+            SELECT l.originCode AS origin, l.destinationCode AS destination, COUNT(l) AS searches,
+                   SUM(CASE WHEN l.resultCount = 0 THEN 1 ELSE 0 END) AS zeroResults,
+                   AVG(l.latencyMicros) AS avgLatencyMicros
+            FROM RouteSearchLog l
+            WHERE l.searchedAt >= :since
+            GROUP BY l.originCode, l.destinationCode
+            ORDER BY COUNT(l) DESC
+            """)
+    List<PairAggregate> topPairs(@Param("since") Instant since, Pageable page);
+
+    /**
+     * Pairs with at least one search that returned no route since the given instant, ordered by
+     * the number of such searches; searches and latency cover all searches of the pair.
+     */
+    @Query("""
+            SELECT l.originCode AS origin, l.destinationCode AS destination, COUNT(l) AS searches,
+                   SUM(CASE WHEN l.resultCount = 0 THEN 1 ELSE 0 END) AS zeroResults,
+                   AVG(l.latencyMicros) AS avgLatencyMicros
+            FROM RouteSearchLog l
+            WHERE l.searchedAt >= :since
+            GROUP BY l.originCode, l.destinationCode
+            HAVING SUM(CASE WHEN l.resultCount = 0 THEN 1 ELSE 0 END) > 0
+            ORDER BY SUM(CASE WHEN l.resultCount = 0 THEN 1 ELSE 0 END) DESC
+            """)
+    List<PairAggregate> zeroResultPairs(@Param("since") Instant since, Pageable page);
+}
@@ -0,0 +1,71 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSqlRepository
+ * Purpose: Database-side route search using a bounded-depth recursive CTE
+ *          over the transportations table.
+ * Notes: Applies the same rules as RouteService (≤ 3 legs, exactly 1 FLIGHT,
+ *        at most one non-FLIGHT before/after) while recursing, so only valid
+ *        paths are expanded. Returns leg ids in travel order.
+ *        Ids are inlined as numeric literals (typed longs, no injection risk)
+ *        because H2 does not bind parameters inside recursive table expressions.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class RouteSqlRepository {
+
+    private static final String ROUTE_SEARCH_SQL = """
+            WITH RECURSIVE paths (last_location_id, depth, flights, before_ground, after_ground, leg_ids) AS (
+                SELECT t.destination_id,
+                       1,
+                       CASE WHEN t.type = 'FLIGHT' THEN 1 ELSE 0 END,
+                       CASE WHEN t.type = 'FLIGHT' THEN 0 ELSE 1 END,
+                       0,
+                       CAST(t.id AS VARCHAR(64))
+                FROM transportations t
+                WHERE t.origin_id = %d
+                UNION ALL
+                SELECT t.destination_id,
+                       p.depth + 1,
+                       p.flights + CASE WHEN t.type = 'FLIGHT' THEN 1 ELSE 0 END,
+                       p.before_ground + CASE WHEN t.type <> 'FLIGHT' AND p.flights = 0 THEN 1 ELSE 0 END,
+                       p.after_ground + CASE WHEN t.type <> 'FLIGHT' AND p.flights = 1 THEN 1 ELSE 0 END,
+                       CAST(p.leg_ids || ',' || CAST(t.id AS VARCHAR(20)) AS VARCHAR(64))
+                FROM paths p
+                JOIN transportations t ON t.origin_id = p.last_location_id
+                WHERE p.depth < 3
+                  AND p.flights + CASE WHEN t.type = 'FLIGHT' THEN 1 ELSE 0 END <= 1
+                  AND p.before_ground + CASE WHEN t.type <> 'FLIGHT' AND p.flights = 0 THEN 1 ELSE 0 END <= 1
+                  AND p.after_ground + CASE WHEN t.type <> 'FLIGHT' AND p.flights = 1 THEN 1 ELSE 0 END <= 1
+            )
+            SELECT leg_ids
+            FROM paths
+            WHERE last_location_id = %d
+              AND flights = 1
+            ORDER BY depth, leg_ids
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public RouteSqlRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Find all valid routes as lists of transportation ids (in travel order). */
+    public List<List<Long>> findRouteLegIds(long originId, long destinationId) {
+        String sql = String.format(ROUTE_SEARCH_SQL, originId, destinationId);
+        return jdbc.query(sql, (rs, rowNum) -> parseLegIds(rs.getString(1)));
+    }
+
+    private static List<Long> parseLegIds(String csv) {
+        String[] parts = csv.split(",");
+        List<Long> ids = new ArrayList<>(parts.length);
+        for (String p : parts) ids.add(Long.parseLong(p.trim()));
+        return ids;
+    }
+}
@@ -0,0 +1,22 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SeatOccupancyRepository
+ * Purpose: Spring Data JPA repository for SeatOccupancy entity.
+ * Notes: Rows are keyed by (transportationId, travelDate).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.repository;
+
+import com.emiray.routeplanner.domain.SeatOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface SeatOccupancyRepository extends JpaRepository<SeatOccupancy, Long> {
+
+    /** Find the occupancy row of a transportation on a given day. */
+    Optional<SeatOccupancy> findByTransportationIdAndTravelDate(Long transportationId, LocalDate travelDate);
+
+    /** All occupancy rows from a day on (used to warm the in-memory counters at startup). */
+    List<SeatOccupancy> findByTravelDateGreaterThanEqual(LocalDate from);
+}
@@ -1,14 +1,20 @@
 /* ──────────────────────────────────────────────────────────────────────────
  * Title: TransportationRepository
  * Purpose: Spring Data JPA repository for Transportation entity.
- * Notes: Provides CRUD plus helpers to query by origin or destination.
+ * Notes: Provides CRUD plus helpers to query by origin or destination
+ *        (including ground-only and flight-table lookups used by shards).
+ *        Snapshot loads fetch-join both endpoints (one query, not one per row).
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner.repository;
 
 import com.emiray.routeplanner.domain.Location;
 import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TransportationRepository extends JpaRepository<Transportation, Long> {
@@ -18,4 +24,25 @@ public interface TransportationRepository extends JpaRepository<Transportation,
 
     /** Find all transportations arriving at a given destination. */
     List<Transportation> findByDestination(Location destination);
+
+    /** Find transportations departing from origin, excluding a type (e.g., ground links only). */
+    List<Transportation> findByOriginAndTypeNot(Location origin, TransportationType type);
+
+    /** Find transportations arriving at destination, excluding a type (e.g., ground links only). */
+    List<Transportation> findByDestinationAndTypeNot(Location destination, TransportationType type);
+
+    /** Find transportations of a type between any of the given origin and destination codes. */
+    List<Transportation> findByTypeAndOriginLocationCodeInAndDestinationLocationCodeIn(
+            TransportationType type, Collection<String> originCodes, Collection<String> destinationCodes);
+
+    /** All transportations with origin and destination loaded in the same query. */
+    @Query("select t from Transportation t join fetch t.origin join fetch t.destination")
+    List<Transportation> findAllWithEndpoints();
+
+    /** Transportations departing from or arriving at any of the given locations, endpoints fetched. */
+    @Query("""
+            select t from Transportation t join fetch t.origin o join fetch t.destination d
+            where o.id in :locationIds or d.id in :locationIds
+            """)
+    List<Transportation> findAllTouching(@Param("locationIds") Collection<Long> locationIds);
 }
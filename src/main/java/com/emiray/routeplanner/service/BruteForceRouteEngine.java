@@ -0,0 +1,111 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: BruteForceRouteEngine
+ * Purpose: Reference route engine: enumerate all 1/2/3-leg candidates over
+ *          the full transportation list, then filter by domain rules.
+ * Notes: Deliberately simple; other engines are validated against it
+ *        (see ShadowRouteComparator).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.dto.RouteDtos;
+import com.emiray.routeplanner.repository.TransportationRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+public class BruteForceRouteEngine implements RouteEngine {
+
+    public static final String NAME = "memory";
+
+    private final TransportationRepository transportationRepository;
+
+    public BruteForceRouteEngine(TransportationRepository transportationRepository) {
+        this.transportationRepository = transportationRepository;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                            RouteSearchTrace trace) {
+        // Fetch all transportations once (simple dataset; acceptable for case study scale).
+        final List<Transportation> all = transportationRepository.findAll();
+        trace.mark(RouteSearchTrace.Phase.FETCH);
+
+        // Generate 1, 2, 3-leg candidates
+        List<List<Transportation>> candidates = new ArrayList<>();
+        candidates.addAll(oneLeg(all, origin, destination));
+        candidates.addAll(twoLegs(all, origin, destination));
+        candidates.addAll(threeLegs(all, origin, destination));
+        trace.mark(RouteSearchTrace.Phase.ENUMERATE);
+        trace.candidates(candidates.size());
+
+        // Apply domain rules
+        List<List<Transportation>> valid = candidates.stream()
+                .filter(RouteRules::isConnected)               // A->B, B->C ...
+                .filter(RouteRules::hasExactlyOneFlight)       // exactly 1 FLIGHT
+                .filter(RouteRules::beforeAfterTransfersValid) // at most 1 before & 1 after (non-FLIGHT)
+                .collect(Collectors.toList());
+
+        // Bonus: filter by operating days if date provided (no-op when field missing)
+        if (date != null) {
+            int dow = RouteRules.mapToCaseStudyDow(date.getDayOfWeek()); // 1=Mon ... 7=Sun
+            valid = valid.stream()
+                    .filter(path -> RouteRules.operatesOn(path, dow))
+                    .collect(Collectors.toList());
+        }
+        trace.mark(RouteSearchTrace.Phase.FILTER);
+
+        // Map to response DTO
+        List<RouteDtos.Route> routes = valid.stream().map(RouteRules::toDto).collect(Collectors.toList());
+        trace.mark(RouteSearchTrace.Phase.MAP);
+        return routes;
+    }
+
+    // ── Candidate builders ──────────────────────────────────────────────────
+
+    private List<List<Transportation>> oneLeg(List<Transportation> all, Location origin, Location dest) {
+        return all.stream()
+                .filter(t -> t.getOrigin().getId().equals(origin.getId())
+                        && t.getDestination().getId().equals(dest.getId()))
+                .map(Collections::singletonList)
+                .collect(Collectors.toList());
+    }
+
+    private List<List<Transportation>> twoLegs(List<Transportation> all, Location origin, Location dest) {
+        List<List<Transportation>> result = new ArrayList<>();
+        for (Transportation first : all) {
+            if (!first.getOrigin().getId().equals(origin.getId())) continue;
+            for (Transportation second : all) {
+                if (!first.getDestination().getId().equals(second.getOrigin().getId())) continue;
+                if (!second.getDestination().getId().equals(dest.getId())) continue;
+                result.add(Arrays.asList(first, second));
+            }
+        }
+        return result;
+    }
+
+    private List<List<Transportation>> threeLegs(List<Transportation> all, Location origin, Location dest) {
+        List<List<Transportation>> result = new ArrayList<>();
+        for (Transportation first : all) {
+            if (!first.getOrigin().getId().equals(origin.getId())) continue;
+            for (Transportation second : all) {
+                if (!first.getDestination().getId().equals(second.getOrigin().getId())) continue;
+                for (Transportation third : all) {
+                    if (!second.getDestination().getId().equals(third.getOrigin().getId())) continue;
+                    if (!third.getDestination().getId().equals(dest.getId())) continue;
+                    result.add(Arrays.asList(first, second, third));
+                }
+            }
+        }
+        return result;
+    }
+}
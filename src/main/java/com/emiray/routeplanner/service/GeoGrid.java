@@ -0,0 +1,112 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: GeoGrid
+ * Purpose: Immutable spatial index over location coordinates: a uniform
+ *          grid of 1° × 1° cells answering radius and nearest queries by
+ *          visiting only the cells that overlap the search circle.
+ * Notes: Built with each RouteNetwork snapshot; locations without
+ *        coordinates are not indexed. Distances are great-circle
+ *        (haversine, mean Earth radius).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+
+import java.util.*;
+
+public final class GeoGrid {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double[] latitude;  // NaN = not located
+    private final double[] longitude;
+    private final Map<Long, int[]> cells;
+
+    /** A location index with its distance from the query point. */
+    public record Hit(int location, double distanceKm) {}
+
+    GeoGrid(Location[] locations) {
+        this.latitude = new double[locations.length];
+        this.longitude = new double[locations.length];
+        Map<Long, List<Integer>> grouped = new HashMap<>();
+        for (int i = 0; i < locations.length; i++) {
+            Double lat = locations[i].getLatitude();
+            Double lon = locations[i].getLongitude();
+            latitude[i] = lat == null || lon == null ? Double.NaN : lat;
+            longitude[i] = lat == null || lon == null ? Double.NaN : lon;
+            if (Double.isNaN(latitude[i])) continue;
+            grouped.computeIfAbsent(cellKey(cellRow(lat), cellColumn(lon)), k -> new ArrayList<>()).add(i);
+        }
+        this.cells = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((k, v) -> cells.put(k, v.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    // ── Queries ─────────────────────────────────────────────────────────────
+
+    public boolean isLocated(int location) {
+        return !Double.isNaN(latitude[location]);
+    }
+
+    /** Locations within radiusKm of the point, nearest first (at most limit). */
+    public List<Hit> within(double lat, double lon, double radiusKm, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        int rowFrom = cellRow(Math.max(-90.0, lat - latSpan));
+        int rowTo = cellRow(Math.min(90.0, lat + latSpan));
+
+        double edge = Math.abs(lat) + latSpan; // widest row of the band; near a pole take every column
+        double lonSpan = edge >= 89.0 ? 180.0 : radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(edge)));
+        int columns = lonSpan >= 180.0 ? 360 : Math.min(360, (int) Math.ceil(2 * lonSpan) + 2);
+        int columnFrom = lonSpan >= 180.0 ? 0 : cellColumn(lon - lonSpan);
+
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int c = 0; c < columns; c++) {
+                int column = Math.floorMod(columnFrom + c, 360);
+                int[] members = cells.get(cellKey(row, column));
+                if (members == null) continue;
+                for (int i : members) {
+                    double d = distanceKm(lat, lon, latitude[i], longitude[i]);
+                    if (d <= radiusKm) hits.add(new Hit(i, d));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    /** Great-circle distance from a point to a location (NaN when not located). */
+    public double distanceKm(double lat, double lon, int location) {
+        if (!isLocated(location)) return Double.NaN;
+        return distanceKm(lat, lon, latitude[location], longitude[location]);
+    }
+
+    /** Great-circle distance between two locations (NaN when either is not located). */
+    public double distanceKm(int from, int to) {
+        if (!isLocated(from) || !isLocated(to)) return Double.NaN;
+        return distanceKm(latitude[from], longitude[from], latitude[to], longitude[to]);
+    }
+
+    /** Haversine distance in kilometers. */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // ── Cells ───────────────────────────────────────────────────────────────
+
+    private static int cellRow(double lat) {
+        return Math.min(179, (int) Math.floor(lat + 90.0));
+    }
+
+    private static int cellColumn(double lon) {
+        return Math.floorMod((int) Math.floor(lon + 180.0), 360);
+    }
+
+    private static long cellKey(int row, int column) {
+        return (long) row * 360 + column;
+    }
+}
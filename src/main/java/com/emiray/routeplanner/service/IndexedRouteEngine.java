@@ -0,0 +1,107 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: IndexedRouteEngine
+ * Purpose: Route engine over the in-memory RouteNetwork snapshot that does
+ *          not allocate per candidate: routes are walked into a reused path
+ *          buffer and appended as leg indices to a per-thread packed int[].
+ * Notes: The date filter is fused into the walk (operating-day bit masks).
+ *        A search allocates one exact-size copy of the packed block for its
+ *        result; DTOs are created lazily by PackedRouteList at
+ *        serialization time, so the MAP phase stays ~0 here.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+public class IndexedRouteEngine implements RouteEngine {
+
+    public static final String NAME = "indexed";
+
+    /** Packed blocks above this many ints are not kept between searches. */
+    private static final int MAX_RETAINED_INTS = 64 * 1024;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final NetworkState networkState;
+
+    public IndexedRouteEngine(NetworkState networkState) {
+        this.networkState = networkState;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                            RouteSearchTrace trace) {
+        final RouteNetwork network = networkState.current();
+        final int o = network.indexOf(origin.getId());
+        final int d = network.indexOf(destination.getId());
+        trace.mark(RouteSearchTrace.Phase.FETCH);
+        if (o < 0 || d < 0) return List.of();
+
+        final int dayMask = date == null ? RouteNetwork.ALL_DAYS
+                : 1 << (RouteRules.mapToCaseStudyDow(date.getDayOfWeek()) - 1);
+        return enumerate(network, o, d, dayMask, trace);
+    }
+
+    /** Walk all valid routes of a pair on the given days into a lazily mapped result. */
+    static List<RouteDtos.Route> enumerate(RouteNetwork network, int origin, int destination, int dayMask,
+                                           RouteSearchTrace trace) {
+        final Scratch s = SCRATCH.get();
+        s.begin(network, dayMask);
+        try {
+            network.forEachRoute(origin, destination, s, s.path);
+            trace.mark(RouteSearchTrace.Phase.ENUMERATE);
+            trace.candidates(s.visited);
+            if (s.size == 0) return List.of();
+            return new PackedRouteList(network, Arrays.copyOf(s.packed, s.size * PackedRouteList.STRIDE), s.size);
+        } finally {
+            s.end();
+        }
+    }
+
+    /** Per-thread buffers; also the visitor, so the walk allocates no lambda. */
+    private static final class Scratch implements RouteNetwork.RouteVisitor {
+        final int[] path = new int[3];
+        int[] packed = new int[64 * PackedRouteList.STRIDE];
+        int size;
+        int visited;
+        RouteNetwork network;
+        int dayMask;
+
+        void begin(RouteNetwork network, int dayMask) {
+            this.network = network;
+            this.dayMask = dayMask;
+            this.size = 0;
+            this.visited = 0;
+        }
+
+        /** Drop the snapshot reference (it may be evicted) and oversized blocks. */
+        void end() {
+            network = null;
+            if (packed.length > MAX_RETAINED_INTS) packed = new int[64 * PackedRouteList.STRIDE];
+        }
+
+        @Override
+        public void visit(int[] legs, int length) {
+            visited++;
+            for (int i = 0; i < length; i++) {
+                if ((network.legDays(legs[i]) & dayMask) == 0) return;
+            }
+            int base = size * PackedRouteList.STRIDE;
+            if (base + PackedRouteList.STRIDE > packed.length) packed = Arrays.copyOf(packed, packed.length * 2);
+            packed[base] = length;
+            System.arraycopy(legs, 0, packed, base + 1, length);
+            size++;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: LocationSelector
+ * Purpose: One end of a route query: a single location code, or every
+ *          location of a city ("city:Istanbul"), a country ("country:TR") or
+ *          within a radius of a coordinate ("near:41.04,28.99,25" = lat,lon,km).
+ * Notes: Plain values without a recognized prefix are location codes, so
+ *        existing clients are unaffected.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+public record LocationSelector(Kind kind, String value) {
+
+    public enum Kind { CODE, CITY, COUNTRY, NEAR }
+
+    /** Upper bound for near: radii, keeps grid scans local. */
+    public static final double MAX_RADIUS_KM = 1000.0;
+
+    private static final String CITY_PREFIX = "city:";
+    private static final String COUNTRY_PREFIX = "country:";
+    private static final String NEAR_PREFIX = "near:";
+
+    /** Parse a query parameter value. */
+    public static LocationSelector parse(String raw) {
+        String lower = raw.toLowerCase(Locale.ROOT);
+        if (lower.startsWith(CITY_PREFIX)) return new LocationSelector(Kind.CITY, raw.substring(CITY_PREFIX.length()).trim());
+        if (lower.startsWith(COUNTRY_PREFIX)) return new LocationSelector(Kind.COUNTRY, raw.substring(COUNTRY_PREFIX.length()).trim());
+        if (lower.startsWith(NEAR_PREFIX)) return new LocationSelector(Kind.NEAR, raw.substring(NEAR_PREFIX.length()).trim());
+        return new LocationSelector(Kind.CODE, raw);
+    }
+
+    /** True when the raw value selects more than a single code. */
+    public static boolean isMulti(String raw) {
+        return raw != null && parse(raw).kind() != Kind.CODE;
+    }
+
+    /** Matching location indices on a snapshot (404 when nothing matches). */
+    public int[] resolve(RouteNetwork network, String role) {
+        int[] found = switch (kind) {
+            case CODE -> {
+                int i = network.indexOfCode(value);
+                yield i < 0 ? new int[0] : new int[]{i};
+            }
+            case CITY -> network.locationsInCity(value);
+            case COUNTRY -> network.locationsInCountry(value);
+            case NEAR -> {
+                double[] p = point();
+                yield network.geo().within(p[0], p[1], p[2], Integer.MAX_VALUE).stream()
+                        .mapToInt(GeoGrid.Hit::location)
+                        .toArray();
+            }
+        };
+        if (found.length == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    role + " " + kind.name().toLowerCase(Locale.ROOT) + " not found: " + value);
+        }
+        return found;
+    }
+
+    /** For NEAR: {latitude, longitude, radiusKm}; 400 on malformed or out-of-range values. */
+    public double[] point() {
+        String[] parts = value.split(",");
+        try {
+            if (kind != Kind.NEAR || parts.length != 3) throw new NumberFormatException();
+            double lat = Double.parseDouble(parts[0].trim());
+            double lon = Double.parseDouble(parts[1].trim());
+            double radius = Double.parseDouble(parts[2].trim());
+            if (Math.abs(lat) > 90 || Math.abs(lon) > 180 || !(radius > 0) || radius > MAX_RADIUS_KM) {
+                throw new NumberFormatException();
+            }
+            return new double[]{lat, lon, radius};
+        } catch (NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Expected near:<lat>,<lon>,<radiusKm> (radius ≤ " + (int) MAX_RADIUS_KM + " km): " + value);
+        }
+    }
+}
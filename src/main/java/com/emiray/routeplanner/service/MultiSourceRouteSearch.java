@@ -0,0 +1,110 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: MultiSourceRouteSearch
+ * Purpose: Route search between location sets (city/country selectors):
+ *          one multi-source enumeration seeded from every matching origin,
+ *          ending at any matching destination, instead of N×M pair queries.
+ * Notes: Destinations are a bitset, so membership is O(1). Leg DTOs are
+ *        built once per leg and shared by every route using that leg.
+ *        Honors a what-if overlay when the query carries one. With a near:
+ *        selector, routes are ordered by great-circle distance from the
+ *        point to the route's start (and end to the destination point), then
+ *        by total great-circle length of the legs.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class MultiSourceRouteSearch {
+
+    public static final String NAME = "multi";
+
+    private final NetworkState networkState;
+
+    public MultiSourceRouteSearch(NetworkState networkState) {
+        this.networkState = networkState;
+    }
+
+    public List<RouteDtos.Route> findRoutes(LocationSelector originSelector, LocationSelector destinationSelector,
+                                            LocalDate date, RouteOverlay spec, RouteSearchTrace trace) {
+        final RouteNetwork network = networkState.current();
+        final int[] origins = originSelector.resolve(network, "Origin");
+        final BitSet destinations = new BitSet(network.locationCount());
+        for (int d : destinationSelector.resolve(network, "Destination")) destinations.set(d);
+        trace.mark(RouteSearchTrace.Phase.LOOKUP);
+
+        final NetworkOverlay overlay = NetworkOverlay.of(network, spec == null ? RouteOverlay.NONE : spec);
+        int kept = 0;
+        for (int o : origins) {
+            if (!overlay.avoids(o)) origins[kept++] = o;
+        }
+        final int[] seeds = Arrays.copyOf(origins, kept);
+        for (int d = destinations.nextSetBit(0); d >= 0; d = destinations.nextSetBit(d + 1)) {
+            if (overlay.avoids(d)) destinations.clear(d);
+        }
+        trace.mark(RouteSearchTrace.Phase.FETCH);
+
+        final int dayBit = date == null ? RouteNetwork.ALL_DAYS
+                : 1 << (RouteRules.mapToCaseStudyDow(date.getDayOfWeek()) - 1);
+        final Map<Integer, RouteDtos.Leg> legDtos = new HashMap<>();
+        final int[] candidates = new int[1];
+        final List<RouteDtos.Route> routes = new ArrayList<>();
+        final List<double[]> rankKeys = new ArrayList<>();
+        final double[] from = originSelector.kind() == LocationSelector.Kind.NEAR ? originSelector.point() : null;
+        final double[] to = destinationSelector.kind() == LocationSelector.Kind.NEAR ? destinationSelector.point() : null;
+        final boolean rank = from != null || to != null;
+        network.forEachRoute(seeds, destinations, overlay, (legs, length) -> {
+            candidates[0]++;
+            for (int i = 0; i < length; i++) {
+                if ((overlay.legDays(legs[i]) & dayBit) == 0) return;
+            }
+            RouteDtos.Leg[] dto = new RouteDtos.Leg[length];
+            for (int i = 0; i < length; i++) {
+                dto[i] = legDtos.computeIfAbsent(legs[i], leg -> RouteRules.toLeg(overlay.leg(leg)));
+            }
+            routes.add(new RouteDtos.Route(List.of(dto)));
+            if (rank) rankKeys.add(rankKey(network.geo(), overlay, legs, length, from, to));
+        });
+        trace.candidates(candidates[0]);
+        trace.mark(RouteSearchTrace.Phase.ENUMERATE);
+
+        if (!rank) return routes;
+        Integer[] order = new Integer[routes.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> rankKeys.get(i)[0])
+                .thenComparingDouble(i -> rankKeys.get(i)[1]));
+        List<RouteDtos.Route> ranked = new ArrayList<>(order.length);
+        for (int i : order) ranked.add(routes.get(i));
+        trace.mark(RouteSearchTrace.Phase.MAP);
+        return ranked;
+    }
+
+    /** {access distance to/from the near: points, total leg length}; unknown coordinates count as 0. */
+    private static double[] rankKey(GeoGrid geo, NetworkOverlay overlay, int[] legs, int length,
+                                    double[] from, double[] to) {
+        int start = overlay.legOrigin(legs[0]);
+        int end = overlay.legDestination(legs[length - 1]);
+        double access = 0;
+        if (from != null) access += orZero(geo.distanceKm(from[0], from[1], start));
+        if (to != null) access += orZero(geo.distanceKm(to[0], to[1], end));
+        double travelled = 0;
+        for (int i = 0; i < length; i++) {
+            travelled += orZero(geo.distanceKm(overlay.legOrigin(legs[i]), overlay.legDestination(legs[i])));
+        }
+        return new double[]{access, travelled};
+    }
+
+    private static double orZero(double km) {
+        return Double.isNaN(km) ? 0 : km;
+    }
+}
@@ -0,0 +1,44 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: NearbyLocationService
+ * Purpose: Nearest-location lookups around a coordinate, answered from the
+ *          GeoGrid of the current network snapshot (no table scan).
+ * Notes: Only locations with coordinates participate.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.LocationDtos;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@Service
+public class NearbyLocationService {
+
+    private final NetworkState networkState;
+
+    public NearbyLocationService(NetworkState networkState) {
+        this.networkState = networkState;
+    }
+
+    /** Locations within radiusKm of (lat, lon), nearest first. */
+    public List<LocationDtos.Nearby> nearby(double lat, double lon, double radiusKm, int limit) {
+        if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat/lon out of range");
+        }
+        if (!(radiusKm > 0) || radiusKm > LocationSelector.MAX_RADIUS_KM) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "radiusKm must be in (0, " + (int) LocationSelector.MAX_RADIUS_KM + "]");
+        }
+        RouteNetwork network = networkState.current();
+        return network.geo().within(lat, lon, radiusKm, Math.max(1, limit)).stream()
+                .map(hit -> {
+                    Location l = network.location(hit.location());
+                    return new LocationDtos.Nearby(l.getId(), l.getLocationCode(), l.getName(), l.getCity(),
+                            l.getCountry(), l.getLatitude(), l.getLongitude(), hit.distanceKm());
+                })
+                .toList();
+    }
+}
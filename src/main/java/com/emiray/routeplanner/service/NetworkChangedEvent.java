@@ -0,0 +1,13 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: NetworkChangedEvent
+ * Purpose: Application event published after a location or transportation
+ *          write, carrying the ids of locations whose links may have changed.
+ * Notes: For transportation updates both the old and new endpoints are listed.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import java.util.Set;
+
+public record NetworkChangedEvent(
+        Set<Long> touchedLocationIds
+) {}
@@ -0,0 +1,10 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: NetworkEvictedEvent
+ * Purpose: Published by NetworkState when a tenant's snapshot is dropped
+ *          (idle or over the memory budget), so derived per-tenant state can
+ *          be released too.
+ * Notes: The next access of the tenant rebuilds everything lazily.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+public record NetworkEvictedEvent(String tenant) {}
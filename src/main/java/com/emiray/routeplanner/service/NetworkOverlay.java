@@ -0,0 +1,145 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: NetworkOverlay
+ * Purpose: Per-query view over a shared RouteNetwork snapshot with some legs
+ *          blocked, some locations avoided and a few virtual legs added.
+ * Notes: Nothing of the base snapshot is copied: blocked legs are a bitset,
+ *        virtual legs get indices ≥ base.legCount(), and merged adjacency is
+ *        materialized only for locations that actually gain a virtual leg.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+public final class NetworkOverlay {
+
+    private final RouteNetwork base;
+    private final BitSet blockedLegs;
+    private final BitSet avoidedLocations;
+
+    private final Transportation[] extraLegs;
+    private final int[] extraOrigin;
+    private final int[] extraDestination;
+    private final boolean[] extraFlight;
+    private final int[] extraDays;
+    private final Map<Integer, int[]> mergedOutLegs;
+
+    private NetworkOverlay(RouteNetwork base, RouteOverlay spec) {
+        this.base = base;
+        this.blockedLegs = new BitSet(base.legCount());
+        this.avoidedLocations = new BitSet(base.locationCount());
+
+        for (Long id : spec.excludedTransportationIds()) {
+            int leg = base.indexOfLeg(id);
+            if (leg >= 0) blockedLegs.set(leg); // unknown ids: nothing to exclude
+        }
+        for (String code : spec.avoidedLocationCodes()) {
+            int loc = indexOf(base, code);
+            avoidedLocations.set(loc);
+            for (int leg : base.inLegs(loc)) blockedLegs.set(leg); // no route may pass through it
+        }
+
+        // Virtual legs (links into avoided locations are pointless and dropped)
+        List<RouteOverlay.ExtraLink> links = spec.extraLinks().stream()
+                .filter(l -> !avoidedLocations.get(indexOf(base, l.destinationCode())))
+                .toList();
+        int n = links.size();
+        this.extraLegs = new Transportation[n];
+        this.extraOrigin = new int[n];
+        this.extraDestination = new int[n];
+        this.extraFlight = new boolean[n];
+        this.extraDays = new int[n];
+
+        Map<Integer, List<Integer>> added = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            RouteOverlay.ExtraLink link = links.get(i);
+            int from = indexOf(base, link.originCode());
+            int to = indexOf(base, link.destinationCode());
+            if (from == to) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Extra link origin and destination must differ: " + link.originCode());
+            }
+            if (link.type() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Extra link type is required");
+            }
+            extraLegs[i] = virtualLeg(base.location(from), base.location(to), link);
+            extraOrigin[i] = from;
+            extraDestination[i] = to;
+            extraFlight[i] = link.type() == TransportationType.FLIGHT;
+            extraDays[i] = RouteRules.operatingDayMask(extraLegs[i]);
+            added.computeIfAbsent(from, k -> new ArrayList<>()).add(base.legCount() + i);
+        }
+
+        this.mergedOutLegs = new HashMap<>(added.size() * 2);
+        added.forEach((loc, extra) -> {
+            int[] own = base.outLegs(loc);
+            int[] merged = Arrays.copyOf(own, own.length + extra.size());
+            for (int k = 0; k < extra.size(); k++) merged[own.length + k] = extra.get(k);
+            mergedOutLegs.put(loc, merged);
+        });
+    }
+
+    /** Apply a what-if spec to a snapshot; unknown location codes are rejected. */
+    public static NetworkOverlay of(RouteNetwork base, RouteOverlay spec) {
+        return new NetworkOverlay(base, spec);
+    }
+
+    // ── View (base legs delegate, virtual legs are local) ───────────────────
+
+    public RouteNetwork base() { return base; }
+
+    public boolean avoids(int location) { return avoidedLocations.get(location); }
+
+    public boolean blocks(int leg) { return leg < base.legCount() && blockedLegs.get(leg); }
+
+    public int[] outLegs(int location) {
+        if (mergedOutLegs.isEmpty()) return base.outLegs(location);
+        int[] merged = mergedOutLegs.get(location);
+        return merged != null ? merged : base.outLegs(location);
+    }
+
+    public int legOrigin(int leg) {
+        return leg < base.legCount() ? base.legOrigin(leg) : extraOrigin[leg - base.legCount()];
+    }
+
+    public int legDestination(int leg) {
+        return leg < base.legCount() ? base.legDestination(leg) : extraDestination[leg - base.legCount()];
+    }
+
+    public boolean isFlight(int leg) {
+        return leg < base.legCount() ? base.isFlight(leg) : extraFlight[leg - base.legCount()];
+    }
+
+    public int legDays(int leg) {
+        return leg < base.legCount() ? base.legDays(leg) : extraDays[leg - base.legCount()];
+    }
+
+    public Transportation leg(int leg) {
+        return leg < base.legCount() ? base.leg(leg) : extraLegs[leg - base.legCount()];
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    private static int indexOf(RouteNetwork network, String code) {
+        int i = network.indexOfCode(code);
+        if (i < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Overlay location code not found: " + code);
+        }
+        return i;
+    }
+
+    /** Transient (unmanaged, id-less) entity so shared rules and mapping apply. */
+    private static Transportation virtualLeg(Location from, Location to, RouteOverlay.ExtraLink link) {
+        Transportation t = new Transportation();
+        t.setOrigin(from);
+        t.setDestination(to);
+        t.setType(link.type());
+        t.setOperatingDays(link.operatingDays());
+        return t;
+    }
+}
@@ -0,0 +1,17 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: NetworkRebuiltEvent
+ * Purpose: Published by NetworkState after a new RouteNetwork snapshot is
+ *          installed for a tenant, so derived indexes can update incrementally.
+ * Notes: previous is null when the tenant had no snapshot yet (never loaded
+ *        or evicted).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import java.util.Set;
+
+public record NetworkRebuiltEvent(
+        String tenant,
+        RouteNetwork previous,
+        RouteNetwork current,
+        Set<Long> touchedLocationIds
+) {}
@@ -0,0 +1,222 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: NetworkState
+ * Purpose: Holds the current RouteNetwork snapshot of every tenant shared by
+ *          in-memory route features; rebuilds a tenant's snapshot after each
+ *          change to its network.
+ * Notes: Built lazily on first use per tenant (data.sql runs after context
+ *        startup). Readers get an immutable snapshot and never block on
+ *        rebuilds. A write reloads only the touched locations and the legs
+ *        touching them and patches the previous snapshot; full loads (one
+ *        fetch-joined query per table) happen on first use, after eviction
+ *        and on refresh(). Idle tenants, and the least recently used ones
+ *        while the estimated heap of all snapshots and their reachability
+ *        matrices exceeds the budget (checked on every load and
+ *        periodically), are evicted and rebuilt on next access. Writes that
+ *        bypass the services (e.g., H2 console) are not seen until the next
+ *        change event or refresh().
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.repository.LocationRepository;
+import com.emiray.routeplanner.repository.TransportationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class NetworkState {
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkState.class);
+
+    private final LocationRepository locationRepository;
+    private final TransportationRepository transportationRepository;
+    private final ApplicationEventPublisher events;
+    private final long idleEvictMillis;
+    private final long memoryBudgetBytes;
+    private final int reachabilitySlots;
+    private final AtomicLong versions = new AtomicLong();
+
+    private final ConcurrentHashMap<String, Slot> tenants = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder budgetEvictions = new LongAdder();
+
+    public NetworkState(LocationRepository locationRepository,
+                        TransportationRepository transportationRepository,
+                        ApplicationEventPublisher events,
+                        @Value("${routes.tenants.idle-evict-ms:1800000}") long idleEvictMillis,
+                        @Value("${routes.tenants.memory-budget-mb:256}") long memoryBudgetMb,
+                        @Value("${routes.reachability.per-weekday:true}") boolean perWeekday) {
+        this.locationRepository = locationRepository;
+        this.transportationRepository = transportationRepository;
+        this.events = events;
+        this.idleEvictMillis = idleEvictMillis;
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+        this.reachabilitySlots = ReachabilityIndex.slots(perWeekday);
+    }
+
+    /** Snapshot holder of one tenant; lastAccess drives idle and LRU eviction. */
+    private static final class Slot {
+        volatile RouteNetwork network;
+        volatile long lastAccess = System.currentTimeMillis();
+    }
+
+    /** Snapshot of per-tenant state for diagnostics. */
+    public record Stats(
+            int loadedTenants,
+            long approxBytes,
+            long memoryBudgetBytes,
+            long loads,
+            long patches,
+            long idleEvictions,
+            long budgetEvictions,
+            List<TenantStats> tenants
+    ) {}
+
+    public record TenantStats(String tenant, long networkVersion, int locations, int legs,
+                              long approxBytes, long idleMillis) {}
+
+    // ── Read ────────────────────────────────────────────────────────────────
+
+    /** Current snapshot of the calling thread's tenant (built on first access). */
+    public RouteNetwork current() {
+        return current(TenantContext.current());
+    }
+
+    /** Current snapshot of a tenant (built on first access). */
+    public RouteNetwork current(String tenant) {
+        Slot slot = tenants.computeIfAbsent(tenant, t -> new Slot());
+        slot.lastAccess = System.currentTimeMillis();
+        RouteNetwork n = slot.network;
+        if (n != null) return n;
+        synchronized (slot) {
+            n = slot.network;
+            if (n == null) slot.network = n = load(tenant);
+        }
+        enforceBudget(tenant); // lazy loads must not overshoot the budget until the next sweep
+        return n;
+    }
+
+    // ── Rebuild ─────────────────────────────────────────────────────────────
+
+    /** Rebuild the writing tenant's snapshot and notify derived indexes. */
+    @EventListener
+    public void onNetworkChanged(NetworkChangedEvent event) {
+        rebuild(TenantContext.current(), event.touchedLocationIds());
+    }
+
+    /** Force a full reload of the current tenant (e.g., after out-of-band data changes). */
+    public void refresh() {
+        rebuild(TenantContext.current(), Set.of());
+    }
+
+    private void rebuild(String tenant, Set<Long> touched) {
+        Slot slot = tenants.computeIfAbsent(tenant, t -> new Slot());
+        RouteNetwork previous;
+        RouteNetwork next;
+        synchronized (slot) {
+            previous = slot.network;
+            next = previous == null || touched.isEmpty() ? load(tenant) : patch(tenant, previous, touched);
+            slot.network = next;
+            slot.lastAccess = System.currentTimeMillis();
+        }
+        events.publishEvent(new NetworkRebuiltEvent(tenant, previous, next, touched));
+    }
+
+    private RouteNetwork load(String tenant) {
+        loads.increment();
+        return TenantContext.callAs(tenant, () -> RouteNetwork.build(versions.incrementAndGet(),
+                locationRepository.findAll(), transportationRepository.findAllWithEndpoints()));
+    }
+
+    /** Reload only the touched locations and the legs touching them. */
+    private RouteNetwork patch(String tenant, RouteNetwork previous, Set<Long> touched) {
+        patches.increment();
+        return TenantContext.callAs(tenant, () -> previous.patch(versions.incrementAndGet(), touched,
+                locationRepository.findAllById(touched), transportationRepository.findAllTouching(touched)));
+    }
+
+    // ── Eviction ────────────────────────────────────────────────────────────
+
+    /** Drop idle tenants, then least recently used ones until under the memory budget. */
+    @Scheduled(fixedDelayString = "${routes.tenants.evict-check-ms:60000}")
+    public void evict() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Slot> e : tenants.entrySet()) {
+            if (now - e.getValue().lastAccess > idleEvictMillis && evict(e.getKey(), e.getValue())) {
+                idleEvictions.increment();
+            }
+        }
+        enforceBudget(null);
+    }
+
+    /** Evict least recently used tenants (never keep) while the estimate exceeds the budget. */
+    private synchronized void enforceBudget(String keep) {
+        List<Map.Entry<String, Slot>> loaded = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<String, Slot> e : tenants.entrySet()) {
+            RouteNetwork n = e.getValue().network;
+            if (n == null) continue;
+            loaded.add(e);
+            total += footprint(n);
+        }
+        if (total <= memoryBudgetBytes) return;
+
+        loaded.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<String, Slot> e : loaded) {
+            if (total <= memoryBudgetBytes) break;
+            if (e.getKey().equals(keep)) continue;
+            RouteNetwork n = e.getValue().network;
+            if (n != null && evict(e.getKey(), e.getValue())) {
+                total -= footprint(n);
+                budgetEvictions.increment();
+            }
+        }
+    }
+
+    /** Snapshot plus the reachability matrix derived from it (the dominant term on large networks). */
+    private long footprint(RouteNetwork network) {
+        return network.approxBytes() + ReachabilityIndex.approxBytes(network.locationCount(), reachabilitySlots);
+    }
+
+    private boolean evict(String tenant, Slot slot) {
+        synchronized (slot) {
+            if (!tenants.remove(tenant, slot)) return false;
+        }
+        log.debug("Evicted route network of tenant {}", tenant);
+        events.publishEvent(new NetworkEvictedEvent(tenant));
+        return true;
+    }
+
+    // ── Diagnostics ─────────────────────────────────────────────────────────
+
+    public Stats stats() {
+        long now = System.currentTimeMillis();
+        List<TenantStats> out = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<String, Slot> e : tenants.entrySet()) {
+            RouteNetwork n = e.getValue().network;
+            if (n == null) continue;
+            out.add(new TenantStats(e.getKey(), n.version(), n.locationCount(), n.legCount(),
+                    footprint(n), now - e.getValue().lastAccess));
+            total += footprint(n);
+        }
+        out.sort(Comparator.comparing(TenantStats::tenant));
+        return new Stats(out.size(), total, memoryBudgetBytes, loads.sum(), patches.sum(),
+                idleEvictions.sum(), budgetEvictions.sum(), out);
+    }
+}
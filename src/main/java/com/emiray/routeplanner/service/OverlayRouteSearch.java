@@ -0,0 +1,58 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: OverlayRouteSearch
+ * Purpose: What-if route search: enumerate routes over the shared network
+ *          snapshot seen through a per-query NetworkOverlay.
+ * Notes: No graph copy and no database writes; the overlay lives only for
+ *        the duration of the call. Enumeration, date filter and mapping are
+ *        fused into one visitor pass.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class OverlayRouteSearch {
+
+    public static final String NAME = "overlay";
+
+    private final NetworkState networkState;
+
+    public OverlayRouteSearch(NetworkState networkState) {
+        this.networkState = networkState;
+    }
+
+    public List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                            RouteOverlay spec, RouteSearchTrace trace) {
+        final RouteNetwork network = networkState.current();
+        final NetworkOverlay overlay = NetworkOverlay.of(network, spec);
+        final int from = network.indexOf(origin.getId());
+        final int to = network.indexOf(destination.getId());
+        trace.mark(RouteSearchTrace.Phase.FETCH);
+
+        if (from < 0 || to < 0 || overlay.avoids(from) || overlay.avoids(to)) {
+            trace.candidates(0);
+            return List.of();
+        }
+
+        final int dayBit = date == null ? RouteNetwork.ALL_DAYS
+                : 1 << (RouteRules.mapToCaseStudyDow(date.getDayOfWeek()) - 1);
+        final int[] candidates = new int[1];
+        final List<RouteDtos.Route> routes = new ArrayList<>();
+        network.forEachRoute(from, to, overlay, (legs, length) -> {
+            candidates[0]++;
+            for (int i = 0; i < length; i++) {
+                if ((overlay.legDays(legs[i]) & dayBit) == 0) return;
+            }
+            routes.add(RouteRules.toDto(overlay, legs, length));
+        });
+        trace.candidates(candidates[0]);
+        trace.mark(RouteSearchTrace.Phase.ENUMERATE);
+        return routes;
+    }
+}
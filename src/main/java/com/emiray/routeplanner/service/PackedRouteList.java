@@ -0,0 +1,46 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: PackedRouteList
+ * Purpose: Read-only List of routes backed by one packed int[] of leg
+ *          indices into a RouteNetwork snapshot; RouteDtos.Route objects are
+ *          created only when an element is read (e.g., by Jackson while
+ *          serializing the response).
+ * Notes: Fixed stride per route: [length, leg0, leg1, leg2]. Elements are
+ *        not cached, so repeated reads map again; equality and hashing follow
+ *        the List contract over the materialized routes.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.dto.RouteDtos;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+public final class PackedRouteList extends AbstractList<RouteDtos.Route> implements RandomAccess {
+
+    /** Ints per route: the leg count followed by up to three leg indices. */
+    static final int STRIDE = 4;
+
+    private final RouteNetwork network;
+    private final int[] packed;
+    private final int size;
+
+    PackedRouteList(RouteNetwork network, int[] packed, int size) {
+        this.network = network;
+        this.packed = packed;
+        this.size = size;
+    }
+
+    @Override
+    public RouteDtos.Route get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int base = index * STRIDE;
+        return RouteRules.toDto(network, packed, base + 1, packed[base]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,180 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ReachabilityIndex
+ * Purpose: Per-origin bitsets of destinations that have at least one valid
+ *          route, optionally split per weekday, for constant-time
+ *          "no route" answers and cheap exists/count queries.
+ * Notes: Row layout: rows[origin * slots + slot]; slot 0 = any day (no date
+ *        filter), slots 1..7 = Mon..Sun. After a network change only the
+ *        origins up to two hops upstream of the touched locations are
+ *        recomputed (routes have ≤ 3 legs); other rows are shared.
+ *        A full rebuild happens lazily when the location set changes.
+ *        One matrix per tenant, dropped when the tenant's network is evicted.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ReachabilityIndex {
+
+    private final NetworkState networkState;
+    private final int slots;
+
+    private final LongAdder fullBuilds = new LongAdder();
+    private final LongAdder incrementalUpdates = new LongAdder();
+    private volatile int lastRowsRecomputed;
+
+    private final ConcurrentHashMap<String, Matrix> matrices = new ConcurrentHashMap<>();
+
+    public ReachabilityIndex(NetworkState networkState,
+                             @Value("${routes.reachability.per-weekday:true}") boolean perWeekday) {
+        this.networkState = networkState;
+        this.slots = slots(perWeekday);
+    }
+
+    /** Immutable index bound to one network snapshot. */
+    private record Matrix(RouteNetwork network, long[][] rows) {}
+
+    /** Snapshot of index counters for diagnostics. */
+    public record Stats(
+            long networkVersion,
+            int locations,
+            boolean perWeekday,
+            long fullBuilds,
+            long incrementalUpdates,
+            int lastRowsRecomputed,
+            long approxBytes
+    ) {}
+
+    // ── Queries ─────────────────────────────────────────────────────────────
+
+    /**
+     * True when at least one valid route exists (on the date's weekday, if given).
+     * Unknown locations answer true so callers fall back to a full search.
+     */
+    public boolean exists(Long originId, Long destinationId, LocalDate date) {
+        Matrix m = matrix();
+        int o = m.network().indexOf(originId);
+        int d = m.network().indexOf(destinationId);
+        if (o < 0 || d < 0) return true;
+        long[] row = m.rows()[o * slots + slot(date)];
+        return (row[d >>> 6] & (1L << d)) != 0;
+    }
+
+    /** Number of destinations reachable from origin by at least one valid route. */
+    public int reachableCount(Long originId, LocalDate date) {
+        Matrix m = matrix();
+        int o = m.network().indexOf(originId);
+        if (o < 0) return 0;
+        int count = 0;
+        for (long word : m.rows()[o * slots + slot(date)]) count += Long.bitCount(word);
+        return count;
+    }
+
+    private int slot(LocalDate date) {
+        if (date == null || slots == 1) return 0;
+        return RouteRules.mapToCaseStudyDow(date.getDayOfWeek());
+    }
+
+    // ── Maintenance ─────────────────────────────────────────────────────────
+
+    private Matrix matrix() {
+        String tenant = TenantContext.current();
+        RouteNetwork network = networkState.current(tenant);
+        Matrix m = matrices.get(tenant);
+        if (m != null && m.network() == network) return m;
+        synchronized (this) {
+            network = networkState.current(tenant);
+            m = matrices.get(tenant);
+            if (m == null || m.network() != network) {
+                m = build(network);
+                matrices.put(tenant, m);
+            }
+            return m;
+        }
+    }
+
+    /** Recompute only rows of origins whose routes could use a touched location. */
+    @EventListener
+    public void onNetworkRebuilt(NetworkRebuiltEvent event) {
+        synchronized (this) {
+            Matrix m = matrices.get(event.tenant());
+            RouteNetwork previous = event.previous();
+            RouteNetwork current = event.current();
+            if (m == null || m.network() != previous || !current.sameLocations(previous)
+                    || event.touchedLocationIds().isEmpty()) {
+                matrices.remove(event.tenant()); // rebuilt lazily on next query
+                return;
+            }
+
+            BitSet affected = previous.upstream(event.touchedLocationIds(), 2);
+            affected.or(current.upstream(event.touchedLocationIds(), 2));
+
+            long[][] rows = m.rows().clone();
+            for (int o = affected.nextSetBit(0); o >= 0; o = affected.nextSetBit(o + 1)) {
+                computeRows(current, o, rows);
+            }
+            matrices.put(event.tenant(), new Matrix(current, rows));
+            incrementalUpdates.increment();
+            lastRowsRecomputed = affected.cardinality();
+        }
+    }
+
+    @EventListener
+    public void onNetworkEvicted(NetworkEvictedEvent event) {
+        matrices.remove(event.tenant());
+    }
+
+    private Matrix build(RouteNetwork network) {
+        long[][] rows = new long[network.locationCount() * slots][];
+        for (int o = 0; o < network.locationCount(); o++) {
+            computeRows(network, o, rows);
+        }
+        fullBuilds.increment();
+        lastRowsRecomputed = network.locationCount();
+        return new Matrix(network, rows);
+    }
+
+    private void computeRows(RouteNetwork network, int origin, long[][] rows) {
+        int words = (network.locationCount() + 63) >>> 6;
+        long[][] own = new long[slots][words];
+        network.forEachRoute(origin, -1, (legs, length) -> {
+            int end = network.legDestination(legs[length - 1]);
+            long bit = 1L << end;
+            own[0][end >>> 6] |= bit; // no date: every valid route counts
+            if (slots == 1) return;
+            int days = RouteNetwork.ALL_DAYS;
+            for (int i = 0; i < length; i++) days &= network.legDays(legs[i]);
+            for (int d = 1; d <= 7; d++) {
+                if ((days & (1 << (d - 1))) != 0) own[d][end >>> 6] |= bit;
+            }
+        });
+        for (int s = 0; s < slots; s++) rows[origin * slots + s] = own[s];
+    }
+
+    // ── Diagnostics ─────────────────────────────────────────────────────────
+
+    public Stats stats() {
+        Matrix m = matrix();
+        int n = m.network().locationCount();
+        return new Stats(m.network().version(), n, slots > 1,
+                fullBuilds.sum(), incrementalUpdates.sum(), lastRowsRecomputed, approxBytes(n, slots));
+    }
+
+    /** Rows per origin: any day, plus one per weekday when enabled. */
+    static int slots(boolean perWeekday) {
+        return perWeekday ? 8 : 1;
+    }
+
+    /** Heap of the bitset rows of a matrix over the given number of locations. */
+    static long approxBytes(int locations, int slots) {
+        return (long) locations * slots * (((locations + 63) >>> 6) * 8L);
+    }
+}
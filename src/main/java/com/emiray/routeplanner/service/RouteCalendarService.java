@@ -0,0 +1,84 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteCalendarService
+ * Purpose: Availability calendar for a pair over a date range in one pass:
+ *          route shapes are enumerated once and each route's operating-day
+ *          mask (AND of its legs' masks) decides on which weekdays it runs.
+ * Notes: Per-date cost is O(1) for counts (7 precomputed weekday buckets);
+ *        route DTOs, when requested, are built once and shared across dates.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class RouteCalendarService {
+
+    private final NetworkState networkState;
+    private final int maxDays;
+
+    public RouteCalendarService(NetworkState networkState,
+                                @Value("${routes.calendar.max-days:366}") int maxDays) {
+        this.networkState = networkState;
+        this.maxDays = maxDays;
+    }
+
+    /** Per-date route counts (and optionally routes) between from and to, inclusive. */
+    public List<RouteDtos.CalendarDay> calendar(String originCode, String destinationCode,
+                                                LocalDate from, LocalDate to, boolean includeRoutes) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must not be before 'from'");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > maxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Date range too long: " + days + " days (max " + maxDays + ")");
+        }
+
+        RouteNetwork network = networkState.current();
+        int origin = indexOf(network, originCode, "Origin");
+        int destination = indexOf(network, destinationCode, "Destination");
+
+        // One enumeration: weekday counts + (optionally) routes bucketed by weekday
+        int[] countsByDay = new int[7];
+        List<List<RouteDtos.Route>> routesByDay = new ArrayList<>(7);
+        for (int d = 0; d < 7; d++) routesByDay.add(includeRoutes ? new ArrayList<>() : null);
+
+        network.forEachRoute(origin, destination, (legs, length) -> {
+            int mask = RouteNetwork.ALL_DAYS;
+            for (int i = 0; i < length; i++) mask &= network.legDays(legs[i]);
+            if (mask == 0) return;
+            RouteDtos.Route dto = includeRoutes ? RouteRules.toDto(network, legs, length) : null;
+            for (int d = 0; d < 7; d++) {
+                if ((mask & (1 << d)) == 0) continue;
+                countsByDay[d]++;
+                if (includeRoutes) routesByDay.get(d).add(dto);
+            }
+        });
+
+        if (includeRoutes) routesByDay.replaceAll(List::copyOf); // freeze once; shared by same-weekday dates
+
+        List<RouteDtos.CalendarDay> out = new ArrayList<>((int) days);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int d = RouteRules.mapToCaseStudyDow(date.getDayOfWeek()) - 1;
+            out.add(new RouteDtos.CalendarDay(date, countsByDay[d], routesByDay.get(d)));
+        }
+        return out;
+    }
+
+    private static int indexOf(RouteNetwork network, String code, String role) {
+        int i = network.indexOfCode(code);
+        if (i < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, role + " code not found: " + code);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,34 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteEngine
+ * Purpose: SPI for route search algorithms; RouteService resolves locations
+ *          and delegates the actual search to one engine.
+ * Notes: Implementations must be stateless/thread-safe Spring beans and
+ *        return the same route set as the reference engine ("memory").
+ *        Engines report phase timings and candidate counts via the trace.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.RouteDtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RouteEngine {
+
+    /** Unique engine name used in configuration and the X-Route-Engine header. */
+    String name();
+
+    /**
+     * True when the engine serves from the in-heap network anyway, so the
+     * in-memory ReachabilityIndex may answer "no route" before it runs.
+     * Engines built to avoid holding the network (sql, sharded) return false.
+     */
+    default boolean inMemory() {
+        return true;
+    }
+
+    /** Find all valid routes between two resolved locations; date is optional. */
+    List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                     RouteSearchTrace trace);
+}
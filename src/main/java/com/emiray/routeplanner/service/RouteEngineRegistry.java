@@ -0,0 +1,63 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteEngineRegistry
+ * Purpose: Look up RouteEngine beans by name; provide the configured primary.
+ * Notes: Primary comes from routes.engine; callers may override per request
+ *        (X-Route-Engine header). Unknown names are rejected with 400.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class RouteEngineRegistry {
+
+    private final Map<String, RouteEngine> engines = new LinkedHashMap<>();
+    private final RouteEngine primary;
+
+    public RouteEngineRegistry(List<RouteEngine> engines,
+                               @Value("${routes.engine:memory}") String primaryName) {
+        for (RouteEngine e : engines) {
+            if (this.engines.putIfAbsent(e.name(), e) != null) {
+                throw new IllegalStateException("Duplicate route engine name: " + e.name());
+            }
+        }
+        this.primary = this.engines.get(primaryName);
+        if (this.primary == null) {
+            throw new IllegalStateException("Unknown routes.engine '" + primaryName
+                    + "'; available: " + this.engines.keySet());
+        }
+    }
+
+    /** The engine configured via routes.engine. */
+    public RouteEngine primary() {
+        return primary;
+    }
+
+    /** Resolve by name; null/blank selects the primary engine. */
+    public RouteEngine resolve(String name) {
+        if (name == null || name.isBlank()) return primary;
+        RouteEngine engine = engines.get(name.trim());
+        if (engine == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown route engine: " + name + " (available: " + engines.keySet() + ")");
+        }
+        return engine;
+    }
+
+    /** Look up by name without failing; null when absent. */
+    public RouteEngine find(String name) {
+        return name == null ? null : engines.get(name.trim());
+    }
+
+    public Set<String> names() {
+        return engines.keySet();
+    }
+}
@@ -0,0 +1,367 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteNetwork
+ * Purpose: Immutable, index-based in-memory snapshot of locations and
+ *          transportations with adjacency lists, for fast route enumeration.
+ * Notes: Locations and legs are addressed by dense int indices (sorted by id);
+ *        entities are kept only for DTO mapping. Secondary indexes map city
+ *        and country to location indices for multi-source searches; a GeoGrid
+ *        indexes coordinates for radius queries. Rebuilt by NetworkState on
+ *        every network change; never mutated after construction.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+
+import java.util.*;
+import java.util.function.Function;
+
+public final class RouteNetwork {
+
+    /** Bit mask for "operates every day" (bit 0 = Monday ... bit 6 = Sunday). */
+    public static final int ALL_DAYS = 0x7F;
+
+    private final long version;
+
+    private final Location[] locations;
+    private final Map<Long, Integer> locationIndexById;
+    private final Map<String, Integer> locationIndexByCode;
+    private final Map<String, int[]> locationsByCity;
+    private final Map<String, int[]> locationsByCountry;
+    private final GeoGrid geo;
+
+    private final Transportation[] legs;
+    private final long[] legIds;
+    private final int[] legOrigin;
+    private final int[] legDestination;
+    private final boolean[] legFlight;
+    private final int[] legDays;
+
+    private final int[][] outLegs;
+    private final int[][] inLegs;
+
+    /** Receives each valid route as leg indices; the buffer is reused between calls. */
+    @FunctionalInterface
+    public interface RouteVisitor {
+        void visit(int[] legs, int length);
+    }
+
+    private RouteNetwork(long version, List<Location> locationList, List<Transportation> transportationList) {
+        this.version = version;
+
+        List<Location> sortedLocations = new ArrayList<>(locationList);
+        sortedLocations.sort(Comparator.comparing(Location::getId));
+        this.locations = sortedLocations.toArray(new Location[0]);
+        this.locationIndexById = new HashMap<>(locations.length * 2);
+        this.locationIndexByCode = new HashMap<>(locations.length * 2);
+        for (int i = 0; i < locations.length; i++) {
+            locationIndexById.put(locations[i].getId(), i);
+            locationIndexByCode.put(locations[i].getLocationCode(), i);
+        }
+        this.locationsByCity = groupLocations(locations, l -> cityKey(l.getCity()));
+        this.locationsByCountry = groupLocations(locations, l -> countryKey(l.getCountry()));
+        this.geo = new GeoGrid(locations);
+
+        List<Transportation> sortedLegs = new ArrayList<>(transportationList);
+        sortedLegs.sort(Comparator.comparing(Transportation::getId));
+        this.legs = sortedLegs.toArray(new Transportation[0]);
+        this.legIds = new long[legs.length];
+        this.legOrigin = new int[legs.length];
+        this.legDestination = new int[legs.length];
+        this.legFlight = new boolean[legs.length];
+        this.legDays = new int[legs.length];
+
+        int[] outDegree = new int[locations.length];
+        int[] inDegree = new int[locations.length];
+        for (int i = 0; i < legs.length; i++) {
+            Transportation t = legs[i];
+            legIds[i] = t.getId();
+            legOrigin[i] = locationIndexById.get(t.getOrigin().getId());
+            legDestination[i] = locationIndexById.get(t.getDestination().getId());
+            legFlight[i] = t.getType() == TransportationType.FLIGHT;
+            legDays[i] = RouteRules.operatingDayMask(t);
+            outDegree[legOrigin[i]]++;
+            inDegree[legDestination[i]]++;
+        }
+
+        this.outLegs = new int[locations.length][];
+        this.inLegs = new int[locations.length][];
+        for (int i = 0; i < locations.length; i++) {
+            outLegs[i] = new int[outDegree[i]];
+            inLegs[i] = new int[inDegree[i]];
+        }
+        int[] outFill = new int[locations.length];
+        int[] inFill = new int[locations.length];
+        for (int i = 0; i < legs.length; i++) {
+            outLegs[legOrigin[i]][outFill[legOrigin[i]]++] = i;
+            inLegs[legDestination[i]][inFill[legDestination[i]]++] = i;
+        }
+    }
+
+    private static Map<String, int[]> groupLocations(Location[] locations,
+                                                     Function<Location, String> key) {
+        Map<String, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < locations.length; i++) {
+            String k = key.apply(locations[i]);
+            if (k != null) groups.computeIfAbsent(k, x -> new ArrayList<>()).add(i);
+        }
+        Map<String, int[]> out = new HashMap<>(groups.size() * 2);
+        groups.forEach((k, v) -> out.put(k, v.stream().mapToInt(Integer::intValue).toArray()));
+        return out;
+    }
+
+    private static String cityKey(String city) {
+        return city == null ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String countryKey(String country) {
+        return country == null ? null : country.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Build a snapshot from full location and transportation lists. */
+    public static RouteNetwork build(long version, List<Location> locations, List<Transportation> transportations) {
+        return new RouteNetwork(version, locations, transportations);
+    }
+
+    /**
+     * New snapshot with the given locations and every leg touching them
+     * replaced by freshly loaded rows; everything else is carried over from
+     * this snapshot, so only the delta has to come from the database.
+     * touchedLocations holds the touched ids that still exist.
+     */
+    public RouteNetwork patch(long version, Set<Long> touchedLocationIds,
+                              List<Location> touchedLocations, List<Transportation> touchingLegs) {
+        List<Location> nextLocations = new ArrayList<>(locations.length + touchedLocations.size());
+        for (Location l : locations) {
+            if (!touchedLocationIds.contains(l.getId())) nextLocations.add(l);
+        }
+        nextLocations.addAll(touchedLocations);
+
+        List<Transportation> nextLegs = new ArrayList<>(legs.length + touchingLegs.size());
+        for (Transportation t : legs) {
+            if (touchedLocationIds.contains(t.getOrigin().getId())
+                    || touchedLocationIds.contains(t.getDestination().getId())) continue;
+            nextLegs.add(t);
+        }
+        nextLegs.addAll(touchingLegs);
+        return new RouteNetwork(version, nextLocations, nextLegs);
+    }
+
+    // ── Accessors ───────────────────────────────────────────────────────────
+
+    public long version() { return version; }
+
+    public int locationCount() { return locations.length; }
+    public int legCount() { return legs.length; }
+
+    public Location location(int index) { return locations[index]; }
+    public Transportation leg(int index) { return legs[index]; }
+
+    /** Dense index of a location id, or -1 when unknown. */
+    public int indexOf(Long locationId) {
+        Integer i = locationIndexById.get(locationId);
+        return i == null ? -1 : i;
+    }
+
+    /** Dense index of a location code, or -1 when unknown. */
+    public int indexOfCode(String locationCode) {
+        Integer i = locationIndexByCode.get(locationCode);
+        return i == null ? -1 : i;
+    }
+
+    /** Indices of all locations in a city (case-insensitive); empty when none. */
+    public int[] locationsInCity(String city) {
+        int[] found = locationsByCity.get(cityKey(city));
+        return found == null ? new int[0] : found.clone();
+    }
+
+    /** Indices of all locations in a country (ISO code, case-insensitive); empty when none. */
+    public int[] locationsInCountry(String country) {
+        int[] found = locationsByCountry.get(countryKey(country));
+        return found == null ? new int[0] : found.clone();
+    }
+
+    /** Spatial index of located locations. */
+    public GeoGrid geo() { return geo; }
+
+    /** Leg index of a transportation id (legs are sorted by id), or -1 when unknown. */
+    public int indexOfLeg(Long transportationId) {
+        if (transportationId == null) return -1;
+        int i = Arrays.binarySearch(legIds, transportationId);
+        return i < 0 ? -1 : i;
+    }
+
+    public int legOrigin(int leg) { return legOrigin[leg]; }
+    public int legDestination(int leg) { return legDestination[leg]; }
+    public boolean isFlight(int leg) { return legFlight[leg]; }
+    public int legDays(int leg) { return legDays[leg]; }
+
+    public int[] outLegs(int location) { return outLegs[location]; }
+    public int[] inLegs(int location) { return inLegs[location]; }
+
+    // ── Enumeration ─────────────────────────────────────────────────────────
+
+    /**
+     * Visit every valid route ([ground]? FLIGHT [ground]?) from origin; when
+     * destination is -1, routes to any location are visited. Only adjacency
+     * lists are walked, so cost is proportional to the origin's neighborhood.
+     */
+    public void forEachRoute(int origin, int destination, RouteVisitor visitor) {
+        forEachRoute(origin, destination, null, visitor);
+    }
+
+    /**
+     * Same walk through a what-if overlay (null = none): blocked legs are
+     * skipped and virtual legs are followed like regular ones.
+     */
+    public void forEachRoute(int origin, int destination, NetworkOverlay overlay, RouteVisitor visitor) {
+        walk(origin, destination, null, overlay, visitor, new int[3]);
+    }
+
+    /** Plain walk into a caller-owned path buffer (length ≥ 3), for allocation-free enumeration. */
+    public void forEachRoute(int origin, int destination, RouteVisitor visitor, int[] buf) {
+        walk(origin, destination, null, null, visitor, buf);
+    }
+
+    /**
+     * Multi-source walk: every route from any of the origins to any location
+     * in destinations (one pass per origin, one shared buffer). Routes that
+     * end at their own origin are not visited.
+     */
+    public void forEachRoute(int[] origins, BitSet destinations, NetworkOverlay overlay, RouteVisitor visitor) {
+        final int[] buf = new int[3];
+        for (int origin : origins) {
+            walk(origin, -1, destinations, overlay, visitor, buf);
+        }
+    }
+
+    /** Core enumeration; a route ends at destination, or (if -1) in destinations, or (if null) anywhere. */
+    private void walk(int origin, int destination, BitSet destinations, NetworkOverlay overlay,
+                      RouteVisitor visitor, int[] buf) {
+        // FLIGHT first
+        for (int f : out(origin, overlay)) {
+            if (!flight(f, overlay) || blocked(f, overlay)) continue;
+            final int hub = dest(f, overlay);
+            buf[0] = f;
+            if (ends(hub, origin, destination, destinations)) visitor.visit(buf, 1);
+            for (int after : out(hub, overlay)) {
+                if (flight(after, overlay) || blocked(after, overlay)) continue;
+                if (!ends(dest(after, overlay), origin, destination, destinations)) continue;
+                buf[0] = f;
+                buf[1] = after;
+                visitor.visit(buf, 2);
+            }
+        }
+
+        // Ground transfer before the FLIGHT
+        for (int before : out(origin, overlay)) {
+            if (flight(before, overlay) || blocked(before, overlay)) continue;
+            for (int f : out(dest(before, overlay), overlay)) {
+                if (!flight(f, overlay) || blocked(f, overlay)) continue;
+                final int hub = dest(f, overlay);
+                if (ends(hub, origin, destination, destinations)) {
+                    buf[0] = before;
+                    buf[1] = f;
+                    visitor.visit(buf, 2);
+                }
+                for (int after : out(hub, overlay)) {
+                    if (flight(after, overlay) || blocked(after, overlay)) continue;
+                    if (!ends(dest(after, overlay), origin, destination, destinations)) continue;
+                    buf[0] = before;
+                    buf[1] = f;
+                    buf[2] = after;
+                    visitor.visit(buf, 3);
+                }
+            }
+        }
+    }
+
+    private static boolean ends(int location, int origin, int destination, BitSet destinations) {
+        if (destination >= 0) return location == destination;
+        if (destinations == null) return true;
+        return location != origin && destinations.get(location);
+    }
+
+    // Overlay-aware leg access; plain array reads when there is no overlay
+    private int[] out(int location, NetworkOverlay overlay) {
+        return overlay == null ? outLegs[location] : overlay.outLegs(location);
+    }
+
+    private int dest(int leg, NetworkOverlay overlay) {
+        return leg < legs.length ? legDestination[leg] : overlay.legDestination(leg);
+    }
+
+    private boolean flight(int leg, NetworkOverlay overlay) {
+        return leg < legs.length ? legFlight[leg] : overlay.isFlight(leg);
+    }
+
+    private static boolean blocked(int leg, NetworkOverlay overlay) {
+        return overlay != null && overlay.blocks(leg);
+    }
+
+    /**
+     * Locations from which a valid route could use a leg touching one of the
+     * given locations: the seeds plus up to two hops upstream (route legs ≤ 3).
+     */
+    public BitSet upstream(Collection<Long> locationIds, int hops) {
+        BitSet result = new BitSet(locations.length);
+        BitSet frontier = new BitSet(locations.length);
+        for (Long id : locationIds) {
+            int i = indexOf(id);
+            if (i >= 0) frontier.set(i);
+        }
+        result.or(frontier);
+        for (int h = 0; h < hops && !frontier.isEmpty(); h++) {
+            BitSet next = new BitSet(locations.length);
+            for (int loc = frontier.nextSetBit(0); loc >= 0; loc = frontier.nextSetBit(loc + 1)) {
+                for (int leg : inLegs[loc]) next.set(legOrigin[leg]);
+            }
+            next.andNot(result);
+            result.or(next);
+            frontier = next;
+        }
+        return result;
+    }
+
+    /** Mirror of upstream(): the seeds plus locations up to the given hops downstream. */
+    public BitSet downstream(Collection<Long> locationIds, int hops) {
+        BitSet result = new BitSet(locations.length);
+        BitSet frontier = new BitSet(locations.length);
+        for (Long id : locationIds) {
+            int i = indexOf(id);
+            if (i >= 0) frontier.set(i);
+        }
+        result.or(frontier);
+        for (int h = 0; h < hops && !frontier.isEmpty(); h++) {
+            BitSet next = new BitSet(locations.length);
+            for (int loc = frontier.nextSetBit(0); loc >= 0; loc = frontier.nextSetBit(loc + 1)) {
+                for (int leg : outLegs[loc]) next.set(legDestination[leg]);
+            }
+            next.andNot(result);
+            result.or(next);
+            frontier = next;
+        }
+        return result;
+    }
+
+    /** True when both snapshots index the same locations in the same order. */
+    public boolean sameLocations(RouteNetwork other) {
+        if (other == null || other.locations.length != locations.length) return false;
+        for (int i = 0; i < locations.length; i++) {
+            if (!Objects.equals(locations[i].getId(), other.locations[i].getId())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Rough retained heap of this snapshot (entities, index maps, adjacency
+     * arrays), used for the per-tenant memory budget; an estimate, not a
+     * measurement.
+     */
+    public long approxBytes() {
+        long perLocation = 256 + 2 * 64 + 16; // entity + id/code map entries + adjacency headers
+        long perLeg = 192 + 8 + 3 * 4 + 1 + 2 * 4; // entity + parallel arrays + in/out adjacency slots
+        return locations.length * perLocation + legs.length * perLeg;
+    }
+}
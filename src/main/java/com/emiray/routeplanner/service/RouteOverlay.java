@@ -0,0 +1,42 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteOverlay
+ * Purpose: What-if modifications for a single route search: transportations
+ *          to ignore, locations to avoid and ad-hoc links to add.
+ * Notes: Part of RouteQuery (and thus the coalescing key), so it is an
+ *        immutable value with null-safe, order-insensitive sets.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.TransportationType;
+
+import java.util.List;
+import java.util.Set;
+
+public record RouteOverlay(
+        Set<Long> excludedTransportationIds,
+        Set<String> avoidedLocationCodes,
+        List<ExtraLink> extraLinks
+) {
+
+    /** A temporary link that exists only for the duration of one query. */
+    public record ExtraLink(
+            String originCode,
+            String destinationCode,
+            TransportationType type,
+            List<Integer> operatingDays // null/empty = every day
+    ) {}
+
+    /** No modifications. */
+    public static final RouteOverlay NONE = new RouteOverlay(null, null, null);
+
+    public RouteOverlay {
+        excludedTransportationIds = excludedTransportationIds == null ? Set.of() : Set.copyOf(excludedTransportationIds);
+        avoidedLocationCodes = avoidedLocationCodes == null ? Set.of() : Set.copyOf(avoidedLocationCodes);
+        extraLinks = extraLinks == null ? List.of() : List.copyOf(extraLinks);
+    }
+
+    /** True when the overlay can only remove routes (the base indexes stay valid upper bounds). */
+    public boolean onlyRemoves() {
+        return extraLinks.isEmpty();
+    }
+}
@@ -0,0 +1,35 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteQuery
+ * Purpose: Immutable description of a single route search request.
+ * Notes: Doubles as the coalescing key; every field that can change the
+ *        result must be part of this record (value equality), including the
+ *        tenant (taken from TenantContext by the convenience constructors).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import java.time.LocalDate;
+
+public record RouteQuery(
+        String originCode,
+        String destinationCode,
+        LocalDate date,
+        String engine,
+        RouteOverlay overlay, // null = plain search on the live network
+        String tenant
+) {
+
+    /** Query served by the configured primary engine. */
+    public RouteQuery(String originCode, String destinationCode, LocalDate date) {
+        this(originCode, destinationCode, date, null, null);
+    }
+
+    /** Query served by the given engine (null/blank = primary). */
+    public RouteQuery(String originCode, String destinationCode, LocalDate date, String engine) {
+        this(originCode, destinationCode, date, engine, null);
+    }
+
+    /** Query of the current tenant, optionally with a what-if overlay. */
+    public RouteQuery(String originCode, String destinationCode, LocalDate date, String engine, RouteOverlay overlay) {
+        this(originCode, destinationCode, date, engine, overlay, TenantContext.current());
+    }
+}
@@ -0,0 +1,156 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteQueryCoalescer
+ * Purpose: Single-flight execution of identical concurrent route queries.
+ * Notes: The first caller for a key (leader) computes on its own thread;
+ *        concurrent callers with an equal key wait on the same future.
+ *        Waiters give up after a per-key timeout measured from the start of
+ *        the flight, and the stale flight is detached so later requests
+ *        start a fresh computation instead of queueing behind it.
+ *        Results are made immutable without materializing lazy route lists.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Component
+public class RouteQueryCoalescer {
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+
+    private final ConcurrentHashMap<RouteQuery, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public RouteQueryCoalescer(@Value("${routes.coalescing.enabled:true}") boolean enabled,
+                               @Value("${routes.coalescing.timeout-ms:5000}") long timeoutMillis) {
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /** One in-flight computation shared by every caller with an equal key. */
+    private static final class Flight {
+        final CompletableFuture<List<RouteDtos.Route>> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+        final long startedAtNanos = System.nanoTime();
+    }
+
+    /** Snapshot of coalescing counters for diagnostics. */
+    public record Stats(
+            boolean enabled,
+            long timeoutMillis,
+            long requests,
+            long leaders,
+            long coalesced,
+            long timeouts,
+            double coalescingRate,
+            int inFlightKeys,
+            int currentWaiters
+    ) {}
+
+    // ── Execution ───────────────────────────────────────────────────────────
+
+    /**
+     * Run the computation for the given key, or join an identical one already in flight.
+     * The returned list is immutable because it may be shared between callers.
+     */
+    public List<RouteDtos.Route> execute(RouteQuery key, Supplier<List<RouteDtos.Route>> computation) {
+        requests.increment();
+        if (!enabled) {
+            leaders.increment();
+            return immutable(computation.get());
+        }
+
+        final Flight mine = new Flight();
+        final Flight existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            return lead(key, mine, computation);
+        }
+        return await(key, existing);
+    }
+
+    private List<RouteDtos.Route> lead(RouteQuery key, Flight flight,
+                                       Supplier<List<RouteDtos.Route>> computation) {
+        leaders.increment();
+        try {
+            List<RouteDtos.Route> routes = immutable(computation.get());
+            flight.result.complete(routes);
+            return routes;
+        } catch (RuntimeException | Error ex) {
+            flight.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Lists that are already read-only (PackedRouteList) pass through as-is:
+     * copying would map every route to DTOs here instead of at serialization.
+     */
+    private static List<RouteDtos.Route> immutable(List<RouteDtos.Route> routes) {
+        return routes instanceof PackedRouteList ? routes : List.copyOf(routes);
+    }
+
+    private List<RouteDtos.Route> await(RouteQuery key, Flight flight) {
+        coalesced.increment();
+        flight.waiters.incrementAndGet();
+        try {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - flight.startedAtNanos);
+            long remaining = Math.max(0, timeoutMillis - elapsed);
+            return flight.result.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            inFlight.remove(key, flight); // detach: next arrivals start a fresh flight
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Route computation timed out: " + key.originCode() + " -> " + key.destinationCode());
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException("Route computation failed", cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for routes");
+        } finally {
+            flight.waiters.decrementAndGet();
+        }
+    }
+
+    // ── Diagnostics ─────────────────────────────────────────────────────────
+
+    public Stats stats() {
+        long total = requests.sum();
+        long joined = coalesced.sum();
+        int waiting = 0;
+        for (Flight f : inFlight.values()) waiting += f.waiters.get();
+        return new Stats(
+                enabled,
+                timeoutMillis,
+                total,
+                leaders.sum(),
+                joined,
+                timeouts.sum(),
+                total == 0 ? 0.0 : (double) joined / total,
+                inFlight.size(),
+                waiting
+        );
+    }
+}
@@ -0,0 +1,152 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteRules
+ * Purpose: Domain rules and DTO mapping shared by route engines
+ *          (≤ 3 legs, exactly 1 FLIGHT; optional non-FLIGHT before/after).
+ * Notes: Stateless helpers; engines decide how candidates are generated.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.dto.RouteDtos;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Objects;
+
+final class RouteRules {
+
+    private RouteRules() {}
+
+    // ── Domain rules ────────────────────────────────────────────────────────
+
+    /** Ensure consecutive legs connect (arrival == next departure). */
+    static boolean isConnected(List<Transportation> path) {
+        for (int i = 0; i < path.size() - 1; i++) {
+            Long a = path.get(i).getDestination().getId();
+            Long b = path.get(i + 1).getOrigin().getId();
+            if (!Objects.equals(a, b)) return false;
+        }
+        return true;
+    }
+
+    /** Exactly one flight per path. */
+    static boolean hasExactlyOneFlight(List<Transportation> path) {
+        long flights = path.stream().filter(t -> t.getType() == TransportationType.FLIGHT).count();
+        return flights == 1;
+    }
+
+    /** At most one non-FLIGHT before and one non-FLIGHT after the single FLIGHT. */
+    static boolean beforeAfterTransfersValid(List<Transportation> path) {
+        int flightIndex = -1;
+        for (int i = 0; i < path.size(); i++) {
+            if (path.get(i).getType() == TransportationType.FLIGHT) {
+                if (flightIndex != -1) return false; // more than one flight
+                flightIndex = i;
+            }
+        }
+        if (flightIndex == -1) return false; // no flight
+
+        // Before flight
+        int beforeCount = flightIndex;
+        if (beforeCount > 1) return false;
+        for (int i = 0; i < flightIndex; i++) {
+            if (path.get(i).getType() == TransportationType.FLIGHT) return false;
+        }
+
+        // After flight
+        int afterCount = path.size() - flightIndex - 1;
+        if (afterCount > 1) return false;
+        for (int i = flightIndex + 1; i < path.size(); i++) {
+            if (path.get(i).getType() == TransportationType.FLIGHT) return false;
+        }
+
+        return true;
+    }
+
+    // ── Bonus: operatingDays ────────────────────────────────────────────────
+    /**
+     * A transportation is active on the given dayOfWeek when its operatingDays
+     * contain it. When operatingDays is null or empty, it is treated as always active.
+     */
+    static boolean operatesOn(List<Transportation> path, int dayOfWeek) {
+        for (Transportation t : path) {
+            if ((operatingDayMask(t) & (1 << (dayOfWeek - 1))) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Operating days of one transportation as a bit mask (bit 0 = Monday ... bit 6 = Sunday).
+     * null/empty means every day. A list holding any malformed value (null or outside 1..7) is
+     * ignored as a whole and also means every day, e.g. [1, 9] runs daily, not Monday only.
+     */
+    static int operatingDayMask(Transportation t) {
+        List<Integer> days = t.getOperatingDays();
+        if (days == null || days.isEmpty()) return RouteNetwork.ALL_DAYS;
+        int mask = 0;
+        for (Integer d : days) {
+            if (d == null || d < 1 || d > 7) return RouteNetwork.ALL_DAYS; // malformed -> always active
+            mask |= 1 << (d - 1);
+        }
+        return mask;
+    }
+
+    static int mapToCaseStudyDow(DayOfWeek dow) {
+        return switch (dow) {
+            case MONDAY -> 1;
+            case TUESDAY -> 2;
+            case WEDNESDAY -> 3;
+            case THURSDAY -> 4;
+            case FRIDAY -> 5;
+            case SATURDAY -> 6;
+            case SUNDAY -> 7;
+        };
+    }
+
+    // ── DTO mapping ─────────────────────────────────────────────────────────
+
+    static RouteDtos.Route toDto(List<Transportation> legs) {
+        List<RouteDtos.Leg> dtoLegs = legs.stream()
+                .map(t -> new RouteDtos.Leg(
+                        t.getId(),
+                        t.getOrigin().getLocationCode(),
+                        t.getDestination().getLocationCode(),
+                        t.getType()
+                ))
+                .toList();
+        return new RouteDtos.Route(dtoLegs);
+    }
+
+    /** Map a route given as leg indices of a RouteNetwork snapshot. */
+    static RouteDtos.Route toDto(RouteNetwork network, int[] legs, int length) {
+        return toDto(network, legs, 0, length);
+    }
+
+    /** Same, for a route stored at an offset of a packed leg-index array. */
+    static RouteDtos.Route toDto(RouteNetwork network, int[] legs, int offset, int length) {
+        RouteDtos.Leg[] dtoLegs = new RouteDtos.Leg[length];
+        for (int i = 0; i < length; i++) {
+            dtoLegs[i] = toLeg(network.leg(legs[offset + i]));
+        }
+        return new RouteDtos.Route(List.of(dtoLegs));
+    }
+
+    /** Map a route given as leg indices of an overlay (virtual legs have no id). */
+    static RouteDtos.Route toDto(NetworkOverlay overlay, int[] legs, int length) {
+        RouteDtos.Leg[] dtoLegs = new RouteDtos.Leg[length];
+        for (int i = 0; i < length; i++) {
+            dtoLegs[i] = toLeg(overlay.leg(legs[i]));
+        }
+        return new RouteDtos.Route(List.of(dtoLegs));
+    }
+
+    static RouteDtos.Leg toLeg(Transportation t) {
+        return new RouteDtos.Leg(
+                t.getId(),
+                t.getOrigin().getLocationCode(),
+                t.getDestination().getLocationCode(),
+                t.getType()
+        );
+    }
+}
@@ -0,0 +1,62 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSearchEvent
+ * Purpose: Java Flight Recorder event emitted once per computed route search.
+ * Notes: Cheap when no recording is active (shouldCommit() short-circuits).
+ *        Enable continuously with e.g.
+ *        -XX:StartFlightRecording=maxage=6h,settings=default
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.emiray.routeplanner.RouteSearch")
+@Label("Route Search")
+@Category({"Route Planner"})
+@Description("A route search computed by RouteService (coalesced waiters are not recorded).")
+@StackTrace(false)
+public class RouteSearchEvent extends Event {
+
+    @Label("Origin")
+    public String origin;
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Date")
+    public String date;
+
+    @Label("Engine")
+    public String engine;
+
+    @Label("Candidates")
+    public int candidates;
+
+    @Label("Results")
+    public int results;
+
+    @Label("Lookup Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lookupTime;
+
+    @Label("Fetch Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long fetchTime;
+
+    @Label("Enumerate Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long enumerateTime;
+
+    @Label("Filter Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long filterTime;
+
+    @Label("Map Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long mapTime;
+}
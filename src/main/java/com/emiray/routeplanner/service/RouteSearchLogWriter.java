@@ -0,0 +1,221 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSearchLogWriter
+ * Purpose: Asynchronous search-log pipeline: capture every route search in a
+ *          bounded in-process buffer and batch-insert it into route_search_log
+ *          from a background thread.
+ * Notes: capture() never blocks: above the high-water mark entries are
+ *        sampled, and when the buffer is full they are dropped (both counted).
+ *        A latency histogram is maintained in memory on capture. Values are
+ *        clipped to the route_search_log column lengths, so one overlong
+ *        selector (city:..., near:...) cannot fail a whole batch insert.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.dto.SearchLogDtos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class RouteSearchLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteSearchLogWriter.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO route_search_log
+                (tenant_id, searched_at, origin_code, destination_code, travel_date, result_count, latency_micros, engine)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /** Column lengths of route_search_log (see RouteSearchLog). */
+    private static final int TENANT_LENGTH = 32;
+    private static final int CODE_LENGTH = 64;
+    private static final int ENGINE_LENGTH = 16;
+
+    /** Histogram bucket upper bounds in milliseconds (last bucket is open-ended). */
+    private static final long[] BUCKET_BOUNDS_MS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private final int capacity;
+    private final int highWater;
+    private final double overloadSampleRate;
+    private final int batchSize;
+    private final long flushMillis;
+    private final ArrayBlockingQueue<Entry> buffer;
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder[] latencyBuckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public RouteSearchLogWriter(JdbcTemplate jdbc,
+                                @Value("${routes.search-log.enabled:true}") boolean enabled,
+                                @Value("${routes.search-log.capacity:10000}") int capacity,
+                                @Value("${routes.search-log.high-water:0.8}") double highWater,
+                                @Value("${routes.search-log.overload-sample-rate:0.1}") double overloadSampleRate,
+                                @Value("${routes.search-log.batch-size:500}") int batchSize,
+                                @Value("${routes.search-log.flush-ms:1000}") long flushMillis) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.highWater = (int) (capacity * Math.max(0.0, Math.min(1.0, highWater)));
+        this.overloadSampleRate = Math.max(0.0, Math.min(1.0, overloadSampleRate));
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < latencyBuckets.length; i++) latencyBuckets[i] = new LongAdder();
+    }
+
+    /** One buffered search. */
+    private record Entry(
+            String tenant,
+            Instant searchedAt,
+            String originCode,
+            String destinationCode,
+            LocalDate date,
+            int results,
+            long latencyMicros,
+            String engine
+    ) {}
+
+    /** Snapshot of pipeline counters for diagnostics. */
+    public record Stats(
+            boolean enabled,
+            int capacity,
+            int buffered,
+            long captured,
+            long sampledOut,
+            long dropped,
+            long written,
+            long failedBatches
+    ) {}
+
+    // ── Capture (request threads) ───────────────────────────────────────────
+
+    /** Record one search; never blocks the caller. */
+    public void capture(RouteQuery query, String engine, int results, long latencyNanos) {
+        captured.increment();
+        latencyBuckets[bucket(latencyNanos / 1_000_000L)].increment();
+        if (!enabled) return;
+
+        if (buffer.size() >= highWater && ThreadLocalRandom.current().nextDouble() >= overloadSampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        Entry e = new Entry(clip(query.tenant(), TENANT_LENGTH), Instant.now(),
+                clip(query.originCode(), CODE_LENGTH), clip(query.destinationCode(), CODE_LENGTH), query.date(),
+                results, latencyNanos / 1_000L, clip(engine, ENGINE_LENGTH));
+        if (!buffer.offer(e)) dropped.increment();
+    }
+
+    private static String clip(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static int bucket(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (millis < BUCKET_BOUNDS_MS[i]) return i;
+        }
+        return BUCKET_BOUNDS_MS.length;
+    }
+
+    // ── Background writer ───────────────────────────────────────────────────
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        writer = new Thread(this::run, "route-search-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Entry first = buffer.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        try {
+            jdbc.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, e) -> {
+                ps.setString(1, e.tenant());
+                ps.setTimestamp(2, Timestamp.from(e.searchedAt()));
+                ps.setString(3, e.originCode());
+                ps.setString(4, e.destinationCode());
+                ps.setDate(5, e.date() == null ? null : Date.valueOf(e.date()));
+                ps.setInt(6, e.results());
+                ps.setLong(7, e.latencyMicros());
+                ps.setString(8, e.engine());
+            });
+            written.add(batch.size());
+        } catch (RuntimeException ex) {
+            failedBatches.increment();
+            dropped.add(batch.size()); // analytics only: lose the batch rather than back up
+            log.warn("Route search log batch of {} failed: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        if (writer == null) return;
+        writer.join(flushMillis * 2);
+        List<Entry> rest = new ArrayList<>(buffer.size());
+        buffer.drainTo(rest);
+        if (!rest.isEmpty()) write(rest);
+    }
+
+    // ── Diagnostics ─────────────────────────────────────────────────────────
+
+    /** Latency distribution of all captured searches since startup. */
+    public SearchLogDtos.LatencyHistogram latencyHistogram() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            buckets.put("<" + BUCKET_BOUNDS_MS[i] + "ms", latencyBuckets[i].sum());
+        }
+        buckets.put(">=" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms",
+                latencyBuckets[BUCKET_BOUNDS_MS.length].sum());
+        return new SearchLogDtos.LatencyHistogram(captured.sum(), buckets);
+    }
+
+    public Stats stats() {
+        return new Stats(enabled, capacity, buffer.size(), captured.sum(), sampledOut.sum(),
+                dropped.sum(), written.sum(), failedBatches.sum());
+    }
+}
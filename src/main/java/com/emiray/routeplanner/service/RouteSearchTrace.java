@@ -0,0 +1,61 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSearchTrace
+ * Purpose: Per-search timing and size counters (phase durations, candidate
+ *          count) filled in by RouteService and the active RouteEngine.
+ * Notes: Not thread-safe; one instance per search on a single thread.
+ *        mark(phase) attributes the time since the previous mark to phase.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class RouteSearchTrace {
+
+    /** Fixed phase vocabulary shared by all engines (unused phases stay 0). */
+    public enum Phase {
+        LOOKUP,    // resolve origin/destination
+        FETCH,     // load transportations (or result legs)
+        ENUMERATE, // generate candidate paths
+        FILTER,    // apply domain rules and date filter
+        MAP        // convert to response DTOs
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long lastMarkNanos = startNanos;
+    private int candidates = -1;
+
+    /** Attribute the time elapsed since the previous mark to the given phase. */
+    public void mark(Phase phase) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - lastMarkNanos;
+        lastMarkNanos = now;
+    }
+
+    /** Number of candidate paths examined (-1 when the engine does not know). */
+    public void candidates(int count) {
+        this.candidates = count;
+    }
+
+    public int candidates() {
+        return candidates;
+    }
+
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /** Phase durations in milliseconds, in phase order. */
+    public Map<String, Double> phaseMillis() {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (Phase p : Phase.values()) {
+            out.put(p.name().toLowerCase(), phaseNanos[p.ordinal()] / 1e6);
+        }
+        return out;
+    }
+}
@@ -2,34 +2,64 @@
  * Title: RouteService
  * Purpose: Build all valid routes between two locations under domain rules
  *          (≤ 3 legs, exactly 1 FLIGHT; optional non-FLIGHT before/after).
+ * Notes: Resolves locations and delegates the search to a RouteEngine
+ *        (configured primary or per-request override); may shadow-run a
+ *        candidate engine for comparison. Each computed search emits a JFR
+ *        RouteSearchEvent and is offered to the SlowQueryLog. Pairs without
+ *        any valid route are answered from the ReachabilityIndex when the
+ *        engine is in-memory (never for sql/sharded, which must not load
+ *        the whole network into heap). Queries
+ *        carrying a RouteOverlay (what-if) run on the OverlayRouteSearch;
+ *        city/country selectors run on the MultiSourceRouteSearch.
+ *        Every answered query is captured by the RouteSearchLogWriter.
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner.service;
 
 import com.emiray.routeplanner.domain.Location;
-import com.emiray.routeplanner.domain.Transportation;
-import com.emiray.routeplanner.domain.TransportationType;
 import com.emiray.routeplanner.dto.RouteDtos;
 import com.emiray.routeplanner.repository.LocationRepository;
-import com.emiray.routeplanner.repository.TransportationRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
-import java.time.DayOfWeek;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Service
 public class RouteService {
 
     private final LocationRepository locationRepository;
-    private final TransportationRepository transportationRepository;
+    private final RouteEngineRegistry engines;
+    private final ShadowRouteComparator shadow;
+    private final RouteQueryCoalescer coalescer;
+    private final SlowQueryLog slowQueryLog;
+    private final ReachabilityIndex reachability;
+    private final OverlayRouteSearch overlaySearch;
+    private final MultiSourceRouteSearch multiSourceSearch;
+    private final RouteSearchLogWriter searchLog;
+    private final boolean shortCircuit;
 
     public RouteService(LocationRepository locationRepository,
-                        TransportationRepository transportationRepository) {
+                        RouteEngineRegistry engines,
+                        ShadowRouteComparator shadow,
+                        RouteQueryCoalescer coalescer,
+                        SlowQueryLog slowQueryLog,
+                        ReachabilityIndex reachability,
+                        OverlayRouteSearch overlaySearch,
+                        MultiSourceRouteSearch multiSourceSearch,
+                        RouteSearchLogWriter searchLog,
+                        @Value("${routes.reachability.short-circuit:true}") boolean shortCircuit) {
         this.locationRepository = locationRepository;
-        this.transportationRepository = transportationRepository;
+        this.engines = engines;
+        this.shadow = shadow;
+        this.coalescer = coalescer;
+        this.slowQueryLog = slowQueryLog;
+        this.reachability = reachability;
+        this.overlaySearch = overlaySearch;
+        this.multiSourceSearch = multiSourceSearch;
+        this.searchLog = searchLog;
+        this.shortCircuit = shortCircuit;
     }
 
     /**
@@ -37,176 +67,132 @@ public class RouteService {
      * Rules: ≤3 legs; exactly 1 FLIGHT; before/after transfers (if present) must be non-FLIGHT.
      */
     public List<RouteDtos.Route> findRoutes(String originCode, String destinationCode, LocalDate date) {
-        final Location origin = locationRepository.findByLocationCode(originCode)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Origin code not found: " + originCode));
-
-        final Location destination = locationRepository.findByLocationCode(destinationCode)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Destination code not found: " + destinationCode));
-
-        // Fetch all transportations once (simple dataset; acceptable for case study scale).
-        final List<Transportation> all = transportationRepository.findAll();
-
-        // Generate 1, 2, 3-leg candidates
-        List<List<Transportation>> candidates = new ArrayList<>();
-        candidates.addAll(oneLeg(all, origin, destination));
-        candidates.addAll(twoLegs(all, origin, destination));
-        candidates.addAll(threeLegs(all, origin, destination));
-
-        // Apply domain rules
-        List<List<Transportation>> valid = candidates.stream()
-                .filter(this::isConnected)               // A->B, B->C ...
-                .filter(this::hasExactlyOneFlight)       // exactly 1 FLIGHT
-                .filter(this::beforeAfterTransfersValid) // at most 1 before & 1 after (non-FLIGHT)
-                .collect(Collectors.toList());
-
-        // Bonus: filter by operating days if date provided (no-op when field missing)
-        if (date != null) {
-            int dow = mapToCaseStudyDow(date.getDayOfWeek()); // 1=Mon ... 7=Sun
-            valid = valid.stream()
-                    .filter(path -> operatesOn(path, dow))
-                    .collect(Collectors.toList());
-        }
-
-        // Map to response DTO
-        return valid.stream().map(this::toDto).collect(Collectors.toList());
+        return findRoutes(new RouteQuery(originCode, destinationCode, date));
     }
 
-    // ── Candidate builders ──────────────────────────────────────────────────
-
-    private List<List<Transportation>> oneLeg(List<Transportation> all, Location origin, Location dest) {
-        return all.stream()
-                .filter(t -> t.getOrigin().getId().equals(origin.getId())
-                        && t.getDestination().getId().equals(dest.getId()))
-                .map(Collections::singletonList)
-                .collect(Collectors.toList());
+    /** Same as above; identical concurrent queries share one computation. */
+    public List<RouteDtos.Route> findRoutes(RouteQuery query) {
+        final long start = System.nanoTime();
+        final List<RouteDtos.Route> routes = coalescer.execute(query, () -> compute(query));
+        searchLog.capture(query, engineName(query), routes.size(), System.nanoTime() - start);
+        return routes;
     }
 
-    private List<List<Transportation>> twoLegs(List<Transportation> all, Location origin, Location dest) {
-        List<List<Transportation>> result = new ArrayList<>();
-        for (Transportation first : all) {
-            if (!first.getOrigin().getId().equals(origin.getId())) continue;
-            for (Transportation second : all) {
-                if (!first.getDestination().getId().equals(second.getOrigin().getId())) continue;
-                if (!second.getDestination().getId().equals(dest.getId())) continue;
-                result.add(Arrays.asList(first, second));
-            }
-        }
-        return result;
+    /** Constant-time check whether at least one valid route exists. */
+    public RouteDtos.Existence routeExists(String originCode, String destinationCode, LocalDate date) {
+        Location origin = findLocation(originCode, "Origin");
+        Location destination = findLocation(destinationCode, "Destination");
+        boolean exists = reachability.exists(origin.getId(), destination.getId(), date);
+        return new RouteDtos.Existence(originCode, destinationCode, date, exists);
     }
 
-    private List<List<Transportation>> threeLegs(List<Transportation> all, Location origin, Location dest) {
-        List<List<Transportation>> result = new ArrayList<>();
-        for (Transportation first : all) {
-            if (!first.getOrigin().getId().equals(origin.getId())) continue;
-            for (Transportation second : all) {
-                if (!first.getDestination().getId().equals(second.getOrigin().getId())) continue;
-                for (Transportation third : all) {
-                    if (!second.getDestination().getId().equals(third.getOrigin().getId())) continue;
-                    if (!third.getDestination().getId().equals(dest.getId())) continue;
-                    result.add(Arrays.asList(first, second, third));
-                }
-            }
-        }
-        return result;
+    /** Number of destinations reachable from origin (on the date's weekday, if given). */
+    public RouteDtos.Reachability reachableCount(String originCode, LocalDate date) {
+        Location origin = findLocation(originCode, "Origin");
+        return new RouteDtos.Reachability(originCode, date, reachability.reachableCount(origin.getId(), date));
     }
 
-    // ── Domain rules ────────────────────────────────────────────────────────
+    // ── Search ──────────────────────────────────────────────────────────────
 
-    /** Ensure consecutive legs connect (arrival == next departure). */
-    private boolean isConnected(List<Transportation> path) {
-        for (int i = 0; i < path.size() - 1; i++) {
-            Long a = path.get(i).getDestination().getId();
-            Long b = path.get(i + 1).getOrigin().getId();
-            if (!Objects.equals(a, b)) return false;
-        }
-        return true;
+    private static boolean isMultiSource(RouteQuery query) {
+        return LocationSelector.isMulti(query.originCode()) || LocationSelector.isMulti(query.destinationCode());
     }
 
-    /** Exactly one flight per path. */
-    private boolean hasExactlyOneFlight(List<Transportation> path) {
-        long flights = path.stream().filter(t -> t.getType() == TransportationType.FLIGHT).count();
-        return flights == 1;
+    private String engineName(RouteQuery query) {
+        if (isMultiSource(query)) return MultiSourceRouteSearch.NAME;
+        if (query.overlay() != null) return OverlayRouteSearch.NAME;
+        return engines.resolve(query.engine()).name();
     }
 
-    /** At most one non-FLIGHT before and one non-FLIGHT after the single FLIGHT. */
-    private boolean beforeAfterTransfersValid(List<Transportation> path) {
-        int flightIndex = -1;
-        for (int i = 0; i < path.size(); i++) {
-            if (path.get(i).getType() == TransportationType.FLIGHT) {
-                if (flightIndex != -1) return false; // more than one flight
-                flightIndex = i;
-            }
+    private List<RouteDtos.Route> compute(RouteQuery query) {
+        if (isMultiSource(query)) return computeMultiSource(query);
+        if (query.overlay() != null) return computeWhatIf(query);
+
+        final RouteEngine engine = engines.resolve(query.engine());
+        final RouteSearchEvent event = new RouteSearchEvent();
+        event.begin();
+        final RouteSearchTrace trace = new RouteSearchTrace();
+
+        final Location origin = findLocation(query.originCode(), "Origin");
+        final Location destination = findLocation(query.destinationCode(), "Destination");
+        trace.mark(RouteSearchTrace.Phase.LOOKUP);
+
+        // No valid route at all: answer without running the engine
+        if (shortCircuit && engine.inMemory()
+                && !reachability.exists(origin.getId(), destination.getId(), query.date())) {
+            trace.candidates(0);
+            record(event, query, engine.name(), trace, 0);
+            return List.of();
         }
-        if (flightIndex == -1) return false; // no flight
 
-        // Before flight
-        int beforeCount = flightIndex;
-        if (beforeCount > 1) return false;
-        for (int i = 0; i < flightIndex; i++) {
-            if (path.get(i).getType() == TransportationType.FLIGHT) return false;
-        }
+        final long start = System.nanoTime();
+        final List<RouteDtos.Route> routes = engine.findRoutes(origin, destination, query.date(), trace);
+        shadow.maybeCompare(engine, origin, destination, query.date(), routes, System.nanoTime() - start);
+
+        record(event, query, engine.name(), trace, routes.size());
+        return routes;
+    }
 
-        // After flight
-        int afterCount = path.size() - flightIndex - 1;
-        if (afterCount > 1) return false;
-        for (int i = flightIndex + 1; i < path.size(); i++) {
-            if (path.get(i).getType() == TransportationType.FLIGHT) return false;
+    private List<RouteDtos.Route> computeWhatIf(RouteQuery query) {
+        final RouteSearchEvent event = new RouteSearchEvent();
+        event.begin();
+        final RouteSearchTrace trace = new RouteSearchTrace();
+
+        final Location origin = findLocation(query.originCode(), "Origin");
+        final Location destination = findLocation(query.destinationCode(), "Destination");
+        trace.mark(RouteSearchTrace.Phase.LOOKUP);
+
+        // Exclusions/avoidances only remove routes, so "no route" still holds
+        if (shortCircuit && query.overlay().onlyRemoves()
+                && !reachability.exists(origin.getId(), destination.getId(), query.date())) {
+            trace.candidates(0);
+            record(event, query, OverlayRouteSearch.NAME, trace, 0);
+            return List.of();
         }
 
-        return true;
+        final List<RouteDtos.Route> routes =
+                overlaySearch.findRoutes(origin, destination, query.date(), query.overlay(), trace);
+        record(event, query, OverlayRouteSearch.NAME, trace, routes.size());
+        return routes;
     }
 
-    // ── Bonus: operatingDays (optional field) ───────────────────────────────
-    /**
-     * If a List<Integer> field named 'operatingDays' exists on Transportation,
-     * consider the transportation active only when it contains the given dayOfWeek.
-     * When field is absent or empty, transportation is treated as always active.
-     */
-    @SuppressWarnings("unchecked")
-    private boolean operatesOn(List<Transportation> path, int dayOfWeek) {
-        for (Transportation t : path) {
-            try {
-                var field = Transportation.class.getDeclaredField("operatingDays");
-                field.setAccessible(true);
-                Object val = field.get(t);
-                if (val instanceof List<?> list && !list.isEmpty()) {
-                    boolean ok = list.stream().allMatch(o -> (o instanceof Integer i) && i >= 1 && i <= 7);
-                    if (!ok) continue; // ignore malformed values; treat as always active
-                    boolean runs = ((List<Integer>) list).contains(dayOfWeek);
-                    if (!runs) return false;
-                }
-            } catch (NoSuchFieldException | IllegalAccessException ignored) {
-                // Field doesn't exist or not accessible -> treat as always active
-            }
-        }
-        return true;
+    private List<RouteDtos.Route> computeMultiSource(RouteQuery query) {
+        final RouteSearchEvent event = new RouteSearchEvent();
+        event.begin();
+        final RouteSearchTrace trace = new RouteSearchTrace();
+
+        final List<RouteDtos.Route> routes = multiSourceSearch.findRoutes(
+                LocationSelector.parse(query.originCode()), LocationSelector.parse(query.destinationCode()),
+                query.date(), query.overlay(), trace);
+        record(event, query, MultiSourceRouteSearch.NAME, trace, routes.size());
+        return routes;
     }
 
-    private int mapToCaseStudyDow(DayOfWeek dow) {
-        return switch (dow) {
-            case MONDAY -> 1;
-            case TUESDAY -> 2;
-            case WEDNESDAY -> 3;
-            case THURSDAY -> 4;
-            case FRIDAY -> 5;
-            case SATURDAY -> 6;
-            case SUNDAY -> 7;
-        };
+    private Location findLocation(String code, String role) {
+        return locationRepository.findByLocationCode(code)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, role + " code not found: " + code));
     }
 
-    // ── DTO mapping ─────────────────────────────────────────────────────────
-
-    private RouteDtos.Route toDto(List<Transportation> legs) {
-        List<RouteDtos.Leg> dtoLegs = legs.stream()
-                .map(t -> new RouteDtos.Leg(
-                        t.getId(),
-                        t.getOrigin().getLocationCode(),
-                        t.getDestination().getLocationCode(),
-                        t.getType()
-                ))
-                .toList();
-        return new RouteDtos.Route(dtoLegs);
+    // ── Observability ───────────────────────────────────────────────────────
+
+    private void record(RouteSearchEvent event, RouteQuery query, String engine,
+                        RouteSearchTrace trace, int results) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.origin = query.originCode();
+            event.destination = query.destinationCode();
+            event.date = query.date() == null ? null : query.date().toString();
+            event.engine = engine;
+            event.candidates = trace.candidates();
+            event.results = results;
+            event.lookupTime = trace.phaseNanos(RouteSearchTrace.Phase.LOOKUP);
+            event.fetchTime = trace.phaseNanos(RouteSearchTrace.Phase.FETCH);
+            event.enumerateTime = trace.phaseNanos(RouteSearchTrace.Phase.ENUMERATE);
+            event.filterTime = trace.phaseNanos(RouteSearchTrace.Phase.FILTER);
+            event.mapTime = trace.phaseNanos(RouteSearchTrace.Phase.MAP);
+            event.commit();
+        }
+        slowQueryLog.record(query, engine, trace, results);
     }
 }
@@ -0,0 +1,228 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteWatchService
+ * Purpose: Server-Sent Events for watched origin/destination pairs: a
+ *          snapshot on subscribe, then added/removed route diffs after each
+ *          network change that can affect the pair.
+ * Notes: On NetworkRebuiltEvent only pairs whose origin lies upstream and
+ *        destination downstream of a touched location (≤ 3 hops, routes have
+ *        ≤ 3 legs; checked on both snapshots) are recomputed. A change of the
+ *        location set recomputes every pair. All watch state is updated on a
+ *        single worker thread, so diffs are ordered and never interleave.
+ *        Watches are per tenant; a rebuild only touches its tenant's pairs.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.dto.RouteDtos;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class RouteWatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteWatchService.class);
+    private static final int NEIGHBORHOOD_HOPS = 3;
+
+    private final NetworkState networkState;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+
+    private final ConcurrentHashMap<WatchKey, Watch> watches = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder rebuildsSeen = new LongAdder();
+    private final LongAdder pairsRecomputed = new LongAdder();
+    private final LongAdder pairsSkipped = new LongAdder();
+    private final LongAdder diffsPushed = new LongAdder();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "route-watch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public RouteWatchService(NetworkState networkState,
+                             @Value("${routes.watch.timeout-ms:1800000}") long timeoutMillis,
+                             @Value("${routes.watch.max-subscribers:1000}") int maxSubscribers) {
+        this.networkState = networkState;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /** A watched pair of a tenant; date = null watches routes regardless of operating days. */
+    private record WatchKey(String tenant, String originCode, String destinationCode, LocalDate date) {}
+
+    /** Subscribers of one pair and the last route set pushed to them (worker thread only). */
+    private static final class Watch {
+        final CopyOnWriteArrayList<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        Set<RouteDtos.Route> routes;
+        long networkVersion;
+    }
+
+    /** Snapshot of watch counters for diagnostics. */
+    public record Stats(
+            int watchedPairs,
+            int subscribers,
+            long rebuildsSeen,
+            long pairsRecomputed,
+            long pairsSkipped,
+            long diffsPushed
+    ) {}
+
+    // ── Subscribe ───────────────────────────────────────────────────────────
+
+    /** Open a stream for a pair: a "snapshot" event first, then "diff" events. */
+    public SseEmitter subscribe(String originCode, String destinationCode, LocalDate date) {
+        RouteNetwork network = networkState.current();
+        if (network.indexOfCode(originCode) < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Origin code not found: " + originCode);
+        }
+        if (network.indexOfCode(destinationCode) < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Destination code not found: " + destinationCode);
+        }
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many route watch subscribers");
+        }
+
+        WatchKey key = new WatchKey(TenantContext.current(), originCode, destinationCode, date);
+        SseEmitter emitter = newEmitter();
+        Watch watch = watches.compute(key, (k, w) -> {
+            Watch target = w != null ? w : new Watch();
+            target.emitters.add(emitter);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(key, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> unsubscribe(key, emitter));
+
+        worker.execute(() -> {
+            if (watch.routes == null) {
+                RouteNetwork current = networkState.current(key.tenant());
+                watch.routes = compute(current, key);
+                watch.networkVersion = current.version();
+            }
+            RouteDtos.RouteDiff snapshot = new RouteDtos.RouteDiff(originCode, destinationCode, date,
+                    watch.networkVersion, List.copyOf(watch.routes), List.of());
+            send(key, emitter, "snapshot", snapshot);
+        });
+        return emitter;
+    }
+
+    /** Emitter of a new subscriber; tests override it to capture the pushed events. */
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void unsubscribe(WatchKey key, SseEmitter emitter) {
+        watches.computeIfPresent(key, (k, w) -> {
+            if (w.emitters.remove(emitter)) subscribers.decrementAndGet();
+            return w.emitters.isEmpty() ? null : w;
+        });
+    }
+
+    // ── Incremental recomputation ───────────────────────────────────────────
+
+    @EventListener
+    public void onNetworkRebuilt(NetworkRebuiltEvent event) {
+        if (watches.isEmpty()) return;
+        worker.execute(() -> recompute(event));
+    }
+
+    private void recompute(NetworkRebuiltEvent event) {
+        rebuildsSeen.increment();
+        RouteNetwork current = event.current();
+        RouteNetwork previous = event.previous();
+        boolean everything = previous == null || event.touchedLocationIds().isEmpty()
+                || !current.sameLocations(previous);
+
+        Set<String> origins = everything ? null : codes(previous, current, true, event.touchedLocationIds());
+        Set<String> destinations = everything ? null : codes(previous, current, false, event.touchedLocationIds());
+
+        watches.forEach((key, watch) -> {
+            if (!key.tenant().equals(event.tenant())) return;
+            if (watch.routes == null) return; // snapshot still pending; it reads the new network
+            if (!everything && !(origins.contains(key.originCode()) && destinations.contains(key.destinationCode()))) {
+                pairsSkipped.increment();
+                watch.networkVersion = current.version();
+                return;
+            }
+            pairsRecomputed.increment();
+            Set<RouteDtos.Route> next = compute(current, key);
+            List<RouteDtos.Route> added = next.stream().filter(r -> !watch.routes.contains(r)).toList();
+            List<RouteDtos.Route> removed = watch.routes.stream().filter(r -> !next.contains(r)).toList();
+            watch.routes = next;
+            watch.networkVersion = current.version();
+            if (added.isEmpty() && removed.isEmpty()) return;
+
+            RouteDtos.RouteDiff diff = new RouteDtos.RouteDiff(key.originCode(), key.destinationCode(),
+                    key.date(), current.version(), added, removed);
+            for (SseEmitter emitter : watch.emitters) send(key, emitter, "diff", diff);
+            diffsPushed.increment();
+        });
+    }
+
+    /** Codes of locations up (origins) or down (destinations) the touched neighborhood, on both snapshots. */
+    private static Set<String> codes(RouteNetwork previous, RouteNetwork current, boolean upstream, Set<Long> touched) {
+        Set<String> out = new HashSet<>();
+        for (RouteNetwork network : List.of(previous, current)) {
+            BitSet near = upstream ? network.upstream(touched, NEIGHBORHOOD_HOPS)
+                    : network.downstream(touched, NEIGHBORHOOD_HOPS);
+            for (int i = near.nextSetBit(0); i >= 0; i = near.nextSetBit(i + 1)) {
+                out.add(network.location(i).getLocationCode());
+            }
+        }
+        return out;
+    }
+
+    /** Current route set of a pair on a snapshot (empty if either location is gone). */
+    private static Set<RouteDtos.Route> compute(RouteNetwork network, WatchKey key) {
+        int origin = network.indexOfCode(key.originCode());
+        int destination = network.indexOfCode(key.destinationCode());
+        if (origin < 0 || destination < 0) return Set.of();
+
+        int dayBit = key.date() == null ? RouteNetwork.ALL_DAYS
+                : 1 << (RouteRules.mapToCaseStudyDow(key.date().getDayOfWeek()) - 1);
+        Set<RouteDtos.Route> routes = new LinkedHashSet<>();
+        network.forEachRoute(origin, destination, (legs, length) -> {
+            for (int i = 0; i < length; i++) {
+                if ((network.legDays(legs[i]) & dayBit) == 0) return;
+            }
+            routes.add(RouteRules.toDto(network, legs, length));
+        });
+        return routes;
+    }
+
+    private void send(WatchKey key, SseEmitter emitter, String name, RouteDtos.RouteDiff payload) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload));
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Dropping route watch subscriber for {}: {}", key, ex.getMessage());
+            unsubscribe(key, emitter);
+        }
+    }
+
+    // ── Diagnostics ─────────────────────────────────────────────────────────
+
+    public Stats stats() {
+        return new Stats(watches.size(), subscribers.get(), rebuildsSeen.sum(),
+                pairsRecomputed.sum(), pairsSkipped.sum(), diffsPushed.sum());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+        watches.values().forEach(w -> w.emitters.forEach(SseEmitter::complete));
+    }
+}
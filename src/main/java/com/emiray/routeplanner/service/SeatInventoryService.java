@@ -0,0 +1,320 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SeatInventoryService
+ * Purpose: Per-day seat inventory for transportations with all-or-nothing
+ *          multi-leg holds, confirmation, release and hold expiry.
+ * Notes: Counters live in memory (one AtomicInteger pair per transportation
+ *        and day, CAS-reserved, no locks); a failed leg rolls back the legs
+ *        already reserved. Occupancy is written behind to seat_occupancy on
+ *        a schedule, so hot flights never contend on database row locks.
+ *        Counters of today and later are warmed from seat_occupancy at
+ *        startup; holds never read the database (this instance is the only
+ *        writer, so an unknown key has no seats sold). Capacity is read from
+ *        the current snapshot on every hold; after a capacity cut the excess
+ *        is reported as overbooked, and counters of deleted legs are dropped.
+ *        Reads never create counters; past dates are rejected and their
+ *        counters are dropped by the sweep once flushed.
+ *        Holds are not persisted: after a restart only confirmed seats count.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.SeatOccupancy;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.dto.SeatDtos;
+import com.emiray.routeplanner.repository.SeatOccupancyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class SeatInventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatInventoryService.class);
+
+    private final NetworkState networkState;
+    private final SeatOccupancyRepository repository;
+    private final Duration holdTtl;
+
+    private final ConcurrentHashMap<SeatKey, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Set<SeatKey> dirty = ConcurrentHashMap.newKeySet();
+
+    public SeatInventoryService(NetworkState networkState,
+                                SeatOccupancyRepository repository,
+                                @Value("${routes.seats.hold-ttl-seconds:600}") long holdTtlSeconds) {
+        this.networkState = networkState;
+        this.repository = repository;
+        this.holdTtl = Duration.ofSeconds(holdTtlSeconds);
+    }
+
+    private record SeatKey(long transportationId, LocalDate date) {}
+
+    /** reserved = held + confirmed; both only ever change through CAS/add. */
+    private static final class Counter {
+        final AtomicInteger reserved;
+        final AtomicInteger confirmed;
+
+        Counter(int confirmed) {
+            this.reserved = new AtomicInteger(confirmed);
+            this.confirmed = new AtomicInteger(confirmed);
+        }
+    }
+
+    private record Hold(String id, List<Long> transportationIds, LocalDate date, int seats, Instant expiresAt) {}
+
+    // ── Commands ────────────────────────────────────────────────────────────
+
+    /** Hold seats on every leg of a route, or on none of them (409 when any leg is full). */
+    public SeatDtos.HoldResponse hold(SeatDtos.HoldRequest req) {
+        List<Long> ids = req.transportationIds();
+        if (new HashSet<>(ids).size() != ids.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "transportationIds must be distinct");
+        }
+
+        requireNotPast(req.date());
+        RouteNetwork network = networkState.current();
+        int dayBit = 1 << (RouteRules.mapToCaseStudyDow(req.date().getDayOfWeek()) - 1);
+        int[] capacities = new int[ids.size()];
+        Counter[] legs = new Counter[ids.size()];
+        int previous = -1;
+        for (int i = 0; i < ids.size(); i++) {
+            int leg = legIndex(network, ids.get(i));
+            if (previous >= 0 && network.legDestination(previous) != network.legOrigin(leg)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Legs are not connected");
+            }
+            if ((network.legDays(leg) & dayBit) == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Transportation " + ids.get(i) + " does not operate on " + req.date());
+            }
+            Integer capacity = network.leg(leg).getCapacity();
+            capacities[i] = capacity == null ? Integer.MAX_VALUE : capacity;
+            legs[i] = counter(new SeatKey(ids.get(i), req.date()));
+            previous = leg;
+        }
+
+        for (int i = 0; i < legs.length; i++) {
+            if (!tryReserve(legs[i], req.seats(), capacities[i])) {
+                for (int k = 0; k < i; k++) legs[k].reserved.addAndGet(-req.seats()); // roll back
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Not enough seats on transportation " + ids.get(i) + " for " + req.date());
+            }
+        }
+        markDirty(ids, req.date());
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), List.copyOf(ids), req.date(), req.seats(),
+                Instant.now().plus(holdTtl));
+        holds.put(hold.id(), hold);
+        return toResponse(hold, "HELD");
+    }
+
+    /** Turn a live hold into sold seats (410 when it has expired or a leg was deleted meanwhile). */
+    public SeatDtos.HoldResponse confirm(String holdId) {
+        Hold hold = take(holdId);
+        if (hold.expiresAt().isBefore(Instant.now())) {
+            free(hold);
+            throw new ResponseStatusException(HttpStatus.GONE, "Hold expired: " + holdId);
+        }
+        RouteNetwork network = networkState.current();
+        Counter[] legs = new Counter[hold.transportationIds().size()];
+        for (int i = 0; i < legs.length; i++) {
+            Long id = hold.transportationIds().get(i);
+            legs[i] = counters.get(new SeatKey(id, hold.date()));
+            if (legs[i] == null || network.indexOfLeg(id) < 0) {
+                free(hold);
+                throw new ResponseStatusException(HttpStatus.GONE, "Transportation " + id + " no longer exists");
+            }
+        }
+        for (Counter c : legs) c.confirmed.addAndGet(hold.seats());
+        markDirty(hold.transportationIds(), hold.date());
+        return toResponse(hold, "CONFIRMED");
+    }
+
+    /** Give the held seats back. */
+    public SeatDtos.HoldResponse release(String holdId) {
+        Hold hold = take(holdId);
+        free(hold);
+        return toResponse(hold, "RELEASED");
+    }
+
+    // ── Queries ─────────────────────────────────────────────────────────────
+
+    public SeatDtos.Availability availability(Long transportationId, LocalDate date) {
+        requireNotPast(date);
+        RouteNetwork network = networkState.current();
+        Transportation t = network.leg(legIndex(network, transportationId));
+        Counter c = counters.get(new SeatKey(transportationId, date)); // null = nothing held or sold
+        int confirmed = c == null ? 0 : c.confirmed.get();
+        int held = c == null ? 0 : Math.max(0, c.reserved.get() - confirmed);
+        Integer available = t.getCapacity() == null ? null : Math.max(0, t.getCapacity() - confirmed - held);
+        int overbooked = t.getCapacity() == null ? 0 : Math.max(0, confirmed + held - t.getCapacity());
+        return new SeatDtos.Availability(transportationId, date, t.getCapacity(), held, confirmed, available,
+                overbooked);
+    }
+
+    /** Number of (transportation, day) counters kept in memory. */
+    int trackedCounters() {
+        return counters.size();
+    }
+
+    // ── Background work ─────────────────────────────────────────────────────
+
+    /** Seed counters of today and later in one query, so holds never read the database. */
+    @PostConstruct
+    void warm() {
+        for (SeatOccupancy row : repository.findByTravelDateGreaterThanEqual(LocalDate.now())) {
+            counters.putIfAbsent(new SeatKey(row.getTransportationId(), row.getTravelDate()),
+                    new Counter(row.getConfirmed()));
+        }
+        log.debug("Warmed {} seat counters", counters.size());
+    }
+
+    /** Reconcile counters of legs touched by a network change (deleted legs, lowered capacity). */
+    @EventListener
+    public void onNetworkRebuilt(NetworkRebuiltEvent event) {
+        RouteNetwork previous = event.previous();
+        RouteNetwork current = event.current();
+        if (previous == null || counters.isEmpty()) return;
+
+        Set<Long> changed = new HashSet<>();
+        if (event.touchedLocationIds().isEmpty()) { // full reload: every leg of this tenant may have changed
+            for (int leg = 0; leg < previous.legCount(); leg++) changed.add(previous.leg(leg).getId());
+        }
+        for (Long locationId : event.touchedLocationIds()) {
+            int loc = previous.indexOf(locationId);
+            if (loc < 0) continue;
+            for (int leg : previous.outLegs(loc)) changed.add(previous.leg(leg).getId());
+            for (int leg : previous.inLegs(loc)) changed.add(previous.leg(leg).getId());
+        }
+        if (changed.isEmpty()) return;
+
+        for (var e : counters.entrySet()) {
+            long id = e.getKey().transportationId();
+            if (!changed.contains(id)) continue;
+            int leg = current.indexOfLeg(id);
+            if (leg < 0) {
+                counters.remove(e.getKey(), e.getValue()); // leg deleted; its rows stay as history
+                continue;
+            }
+            Integer capacity = current.leg(leg).getCapacity();
+            int reserved = e.getValue().reserved.get();
+            if (capacity != null && reserved > capacity) {
+                log.warn("Transportation {} on {} is overbooked by {} after a capacity change",
+                        id, e.getKey().date(), reserved - capacity);
+            }
+        }
+    }
+
+    /** Release holds past their expiry; drop counters of past days once they are flushed. */
+    @Scheduled(fixedDelayString = "${routes.seats.sweep-ms:5000}")
+    public void expireHolds() {
+        Instant now = Instant.now();
+        for (Hold hold : holds.values()) {
+            if (hold.expiresAt().isBefore(now) && holds.remove(hold.id(), hold)) free(hold);
+        }
+        LocalDate today = LocalDate.now();
+        counters.keySet().removeIf(key -> key.date().isBefore(today) && !dirty.contains(key));
+    }
+
+    /** Write changed counters behind to seat_occupancy. */
+    @Scheduled(fixedDelayString = "${routes.seats.flush-ms:1000}")
+    public void flush() {
+        for (SeatKey key : dirty) {
+            dirty.remove(key);
+            Counter c = counters.get(key);
+            if (c == null) continue;
+            try {
+                SeatOccupancy row = repository
+                        .findByTransportationIdAndTravelDate(key.transportationId(), key.date())
+                        .orElseGet(SeatOccupancy::new);
+                int confirmed = c.confirmed.get();
+                row.setTransportationId(key.transportationId());
+                row.setTravelDate(key.date());
+                row.setConfirmed(confirmed);
+                row.setHeld(Math.max(0, c.reserved.get() - confirmed));
+                row.setUpdatedAt(Instant.now());
+                repository.save(row);
+            } catch (RuntimeException ex) {
+                dirty.add(key); // retry on the next run
+                log.warn("Seat occupancy flush failed for {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    private static boolean tryReserve(Counter counter, int seats, int capacity) {
+        for (;;) {
+            int current = counter.reserved.get();
+            if (current > capacity - seats) return false;
+            if (counter.reserved.compareAndSet(current, current + seats)) return true;
+        }
+    }
+
+    /** Give a hold's seats back on the counters that still exist (a deleted leg's counter is gone). */
+    private void free(Hold hold) {
+        for (Long id : hold.transportationIds()) {
+            SeatKey key = new SeatKey(id, hold.date());
+            Counter c = counters.get(key);
+            if (c == null) continue;
+            c.reserved.addAndGet(-hold.seats());
+            dirty.add(key);
+        }
+    }
+
+    private static void requireNotPast(LocalDate date) {
+        if (date.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date is in the past: " + date);
+        }
+    }
+
+    private Hold take(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Hold not found: " + holdId);
+        }
+        return hold;
+    }
+
+    /** Counter of a key for a new hold; keys not warmed at startup have nothing sold yet. */
+    private Counter counter(SeatKey key) {
+        return counters.computeIfAbsent(key, k -> new Counter(0));
+    }
+
+    private void markDirty(List<Long> ids, LocalDate date) {
+        for (Long id : ids) dirty.add(new SeatKey(id, date));
+    }
+
+    private static int legIndex(RouteNetwork network, Long transportationId) {
+        int leg = network.indexOfLeg(transportationId);
+        if (leg < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transportation not found: " + transportationId);
+        }
+        return leg;
+    }
+
+    private static SeatDtos.HoldResponse toResponse(Hold hold, String status) {
+        return new SeatDtos.HoldResponse(hold.id(), hold.transportationIds(), hold.date(), hold.seats(),
+                hold.expiresAt(), status);
+    }
+}
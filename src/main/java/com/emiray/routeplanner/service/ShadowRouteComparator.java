@@ -0,0 +1,180 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShadowRouteComparator
+ * Purpose: Shadow mode: re-run a sampled fraction of live queries on a
+ *          candidate engine off the request thread and compare route sets
+ *          (by leg ids) and latency against the primary engine.
+ * Notes: Bounded executor; when saturated, samples are dropped rather than
+ *        slowing down live traffic. Keeps the most recent mismatches only.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.RouteDtos;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ShadowRouteComparator {
+
+    private static final Logger log = LoggerFactory.getLogger(ShadowRouteComparator.class);
+    private static final int MAX_RECENT_MISMATCHES = 50;
+
+    private final RouteEngine candidate; // null = shadow mode off
+    private final double sampleRate;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder primaryNanos = new LongAdder();
+    private final LongAdder candidateNanos = new LongAdder();
+    private final Deque<Mismatch> recentMismatches = new ArrayDeque<>();
+
+    public ShadowRouteComparator(RouteEngineRegistry engines,
+                                 @Value("${routes.shadow.engine:}") String candidateName,
+                                 @Value("${routes.shadow.sample-rate:0.0}") double sampleRate,
+                                 @Value("${routes.shadow.queue-capacity:100}") int queueCapacity) {
+        this.candidate = candidateName.isBlank() ? null : engines.resolve(candidateName);
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "route-shadow");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, ex) -> dropped.increment());
+    }
+
+    /** One observed difference between primary and candidate route sets. */
+    public record Mismatch(
+            String timestamp,
+            String primaryEngine,
+            String candidateEngine,
+            String originCode,
+            String destinationCode,
+            LocalDate date,
+            List<List<Long>> missingInCandidate,
+            List<List<Long>> extraInCandidate
+    ) {}
+
+    /** Snapshot of shadow-mode counters for diagnostics. */
+    public record Stats(
+            String candidateEngine,
+            double sampleRate,
+            long sampled,
+            long matches,
+            long mismatches,
+            long errors,
+            long dropped,
+            double primaryAvgMillis,
+            double candidateAvgMillis,
+            double candidateToPrimaryLatencyRatio,
+            List<Mismatch> recentMismatches
+    ) {}
+
+    // ── Submission ──────────────────────────────────────────────────────────
+
+    /**
+     * Possibly schedule a shadow comparison for a completed primary search.
+     * Never blocks and never throws into the request path.
+     */
+    public void maybeCompare(RouteEngine primary, Location origin, Location destination, LocalDate date,
+                             List<RouteDtos.Route> primaryRoutes, long primaryElapsedNanos) {
+        if (candidate == null || candidate == primary) return;
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+
+        executor.execute(TenantContext.wrap(
+                () -> compare(primary, origin, destination, date, primaryRoutes, primaryElapsedNanos)));
+    }
+
+    private void compare(RouteEngine primary, Location origin, Location destination, LocalDate date,
+                         List<RouteDtos.Route> primaryRoutes, long primaryElapsedNanos) {
+        final List<RouteDtos.Route> candidateRoutes;
+        final long start = System.nanoTime();
+        try {
+            candidateRoutes = candidate.findRoutes(origin, destination, date, new RouteSearchTrace());
+        } catch (RuntimeException ex) {
+            errors.increment();
+            log.warn("Shadow engine '{}' failed for {} -> {}: {}", candidate.name(),
+                    origin.getLocationCode(), destination.getLocationCode(), ex.toString());
+            return;
+        }
+        sampled.increment();
+        primaryNanos.add(primaryElapsedNanos);
+        candidateNanos.add(System.nanoTime() - start);
+
+        Set<List<Long>> expected = legIdSet(primaryRoutes);
+        Set<List<Long>> actual = legIdSet(candidateRoutes);
+        if (expected.equals(actual)) {
+            matches.increment();
+            return;
+        }
+
+        mismatches.increment();
+        List<List<Long>> missing = new ArrayList<>(expected);
+        missing.removeAll(actual);
+        List<List<Long>> extra = new ArrayList<>(actual);
+        extra.removeAll(expected);
+        log.warn("Shadow mismatch {} vs {} for {} -> {} (date={}): missing={}, extra={}",
+                primary.name(), candidate.name(), origin.getLocationCode(), destination.getLocationCode(),
+                date, missing, extra);
+
+        Mismatch m = new Mismatch(OffsetDateTime.now().toString(), primary.name(), candidate.name(),
+                origin.getLocationCode(), destination.getLocationCode(), date, missing, extra);
+        synchronized (recentMismatches) {
+            recentMismatches.addFirst(m);
+            if (recentMismatches.size() > MAX_RECENT_MISMATCHES) recentMismatches.removeLast();
+        }
+    }
+
+    /** Routes compared as an unordered set of leg-id sequences. */
+    private static Set<List<Long>> legIdSet(List<RouteDtos.Route> routes) {
+        Set<List<Long>> set = new HashSet<>();
+        for (RouteDtos.Route r : routes) {
+            set.add(r.legs().stream().map(RouteDtos.Leg::transportationId).toList());
+        }
+        return set;
+    }
+
+    // ── Diagnostics ─────────────────────────────────────────────────────────
+
+    public Stats stats() {
+        long n = sampled.sum();
+        double primaryAvg = n == 0 ? 0.0 : primaryNanos.sum() / 1e6 / n;
+        double candidateAvg = n == 0 ? 0.0 : candidateNanos.sum() / 1e6 / n;
+        List<Mismatch> recent;
+        synchronized (recentMismatches) {
+            recent = List.copyOf(recentMismatches);
+        }
+        return new Stats(
+                candidate == null ? null : candidate.name(),
+                sampleRate,
+                n,
+                matches.sum(),
+                mismatches.sum(),
+                errors.sum(),
+                dropped.sum(),
+                primaryAvg,
+                candidateAvg,
+                primaryAvg == 0.0 ? 0.0 : candidateAvg / primaryAvg,
+                recent
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,111 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShardService
+ * Purpose: Serve and fetch region-owned ground neighborhoods (non-FLIGHT
+ *          links in/out of a location) for region-sharded route serving.
+ * Notes: Local regions are read from the repository; remote regions are
+ *        fetched from the owning peer over HTTP with a bounded timeout,
+ *        forwarding the caller's tenant header.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.dto.ShardDtos;
+import com.emiray.routeplanner.repository.LocationRepository;
+import com.emiray.routeplanner.repository.TransportationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class ShardService {
+
+    private static final ParameterizedTypeReference<List<ShardDtos.GroundLink>> GROUND_LINKS =
+            new ParameterizedTypeReference<>() {};
+
+    private final ShardTopology topology;
+    private final LocationRepository locationRepository;
+    private final TransportationRepository transportationRepository;
+    private final RestClient restClient;
+
+    public ShardService(ShardTopology topology,
+                        LocationRepository locationRepository,
+                        TransportationRepository transportationRepository,
+                        @Value("${routes.shard.timeout-ms:2000}") long timeoutMillis) {
+        this.topology = topology;
+        this.locationRepository = locationRepository;
+        this.transportationRepository = transportationRepository;
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(Duration.ofMillis(timeoutMillis));
+        factory.setReadTimeout(Duration.ofMillis(timeoutMillis));
+        this.restClient = RestClient.builder().requestFactory(factory).build();
+    }
+
+    // ── Shard side ──────────────────────────────────────────────────────────
+
+    /** Serve the ground neighborhood of a location owned by this instance. */
+    public List<ShardDtos.GroundLink> ownedGroundLinks(String locationCode, ShardDtos.Direction direction) {
+        Location location = locationRepository.findByLocationCode(locationCode)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Location code not found: " + locationCode));
+        if (!topology.owns(location.getCountry())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Region " + location.getCountry() + " is not owned by this instance");
+        }
+        return localGroundLinks(location, direction);
+    }
+
+    // ── Coordinator side ────────────────────────────────────────────────────
+
+    /** Ground neighborhood of a location, from the owning shard (or locally). */
+    public List<ShardDtos.GroundLink> groundLinks(Location location, ShardDtos.Direction direction) {
+        Optional<String> peer = topology.peerFor(location.getCountry());
+        if (peer.isEmpty()) return localGroundLinks(location, direction);
+
+        try {
+            List<ShardDtos.GroundLink> links = restClient.get()
+                    .uri(peer.get() + "/api/_shard/ground-links?location={code}&direction={dir}",
+                            location.getLocationCode(), direction)
+                    .header(TenantContext.HEADER, TenantContext.current())
+                    .retrieve()
+                    .body(GROUND_LINKS);
+            return links == null ? List.of() : links;
+        } catch (RestClientException ex) {
+            HttpStatus status = ex.getMostSpecificCause() instanceof SocketTimeoutException
+                    ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY;
+            throw new ResponseStatusException(status,
+                    "Shard for region " + location.getCountry() + " unavailable: " + ex.getMessage(), ex);
+        }
+    }
+
+    private List<ShardDtos.GroundLink> localGroundLinks(Location location, ShardDtos.Direction direction) {
+        List<Transportation> links = direction == ShardDtos.Direction.OUT
+                ? transportationRepository.findByOriginAndTypeNot(location, TransportationType.FLIGHT)
+                : transportationRepository.findByDestinationAndTypeNot(location, TransportationType.FLIGHT);
+        return links.stream().map(ShardService::toGroundLink).toList();
+    }
+
+    // ── Mapping ─────────────────────────────────────────────────────────────
+
+    private static ShardDtos.GroundLink toGroundLink(Transportation t) {
+        return new ShardDtos.GroundLink(
+                t.getId(),
+                t.getOrigin().getLocationCode(),
+                t.getDestination().getLocationCode(),
+                t.getType(),
+                t.getOperatingDays()
+        );
+    }
+}
@@ -0,0 +1,78 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShardTopology
+ * Purpose: Static region-to-instance map for region-sharded route serving.
+ * Notes: A region is a Location country. This instance owns the ground
+ *        links of routes.shard.regions (empty = owns everything); other
+ *        regions are served by routes.shard.peers (COUNTRY=baseUrl pairs).
+ *        Flights are a replicated global table available on every instance.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+public class ShardTopology {
+
+    private final Set<String> ownedRegions;
+    private final Map<String, String> peers;
+
+    public ShardTopology(@Value("${routes.shard.regions:}") String regions,
+                         @Value("${routes.shard.peers:}") String peers) {
+        this.ownedRegions = parseRegions(regions);
+        this.peers = parsePeers(peers);
+    }
+
+    /** True when this instance is the owner of the region's ground links. */
+    public boolean owns(String country) {
+        return ownedRegions.isEmpty() || ownedRegions.contains(normalize(country));
+    }
+
+    /**
+     * Base URL of the instance owning the region, or empty when it should be
+     * served locally (owned here, or no peer configured for it).
+     */
+    public Optional<String> peerFor(String country) {
+        if (owns(country)) return Optional.empty();
+        return Optional.ofNullable(peers.get(normalize(country)));
+    }
+
+    public Set<String> ownedRegions() {
+        return ownedRegions;
+    }
+
+    public Map<String, String> peers() {
+        return peers;
+    }
+
+    // ── Parsing ─────────────────────────────────────────────────────────────
+
+    private static Set<String> parseRegions(String csv) {
+        Set<String> out = new LinkedHashSet<>();
+        for (String r : csv.split(",")) {
+            if (!r.isBlank()) out.add(normalize(r));
+        }
+        return Collections.unmodifiableSet(out);
+    }
+
+    private static Map<String, String> parsePeers(String csv) {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (String entry : csv.split(",")) {
+            if (entry.isBlank()) continue;
+            int eq = entry.indexOf('=');
+            if (eq <= 0 || eq == entry.length() - 1) {
+                throw new IllegalStateException("Invalid routes.shard.peers entry (expected COUNTRY=url): " + entry);
+            }
+            String url = entry.substring(eq + 1).trim();
+            out.put(normalize(entry.substring(0, eq)), url.endsWith("/") ? url.substring(0, url.length() - 1) : url);
+        }
+        return Collections.unmodifiableMap(out);
+    }
+
+    /** Same normalization as Location#normalize for country. */
+    private static String normalize(String country) {
+        return country == null ? "" : country.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,216 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShardedRouteEngine
+ * Purpose: Coordinator engine for region-sharded serving: fetch the origin-side
+ *          and destination-side ground neighborhoods from their owning shards
+ *          in parallel, then join them with the replicated flight table.
+ * Notes: Valid routes have the shape [ground]? FLIGHT [ground]?, so only
+ *        ground links out of the origin and into the destination are needed.
+ *        Each search uses two scatter threads (routes.shard.scatter-threads
+ *        bounds the pool, i.e. concurrent searches fetching in parallel).
+ *        Both fetches share one deadline (routes.shard.timeout-ms); on any
+ *        failure both are cancelled (interrupted). Timeouts answer 504,
+ *        peer errors 502.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.dto.RouteDtos;
+import com.emiray.routeplanner.dto.ShardDtos;
+import com.emiray.routeplanner.repository.TransportationRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.SocketTimeoutException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+public class ShardedRouteEngine implements RouteEngine {
+
+    public static final String NAME = "sharded";
+
+    private final ShardService shardService;
+    private final TransportationRepository transportationRepository;
+    private final long timeoutMillis;
+    private final ExecutorService scatter;
+
+    public ShardedRouteEngine(ShardService shardService,
+                              TransportationRepository transportationRepository,
+                              @Value("${routes.shard.timeout-ms:2000}") long timeoutMillis,
+                              @Value("${routes.shard.scatter-threads:4}") int scatterThreads) {
+        this.shardService = shardService;
+        this.transportationRepository = transportationRepository;
+        this.timeoutMillis = timeoutMillis;
+        this.scatter = Executors.newFixedThreadPool(Math.max(1, scatterThreads), r -> {
+            Thread t = new Thread(r, "route-scatter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean inMemory() {
+        return false;
+    }
+
+    @Override
+    public List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                            RouteSearchTrace trace) {
+        // Scatter: both neighborhoods in parallel
+        CompletionService<List<ShardDtos.GroundLink>> fetches = new ExecutorCompletionService<>(scatter);
+        Supplier<List<ShardDtos.GroundLink>> out =
+                TenantContext.wrap(() -> shardService.groundLinks(origin, ShardDtos.Direction.OUT));
+        Supplier<List<ShardDtos.GroundLink>> in =
+                TenantContext.wrap(() -> shardService.groundLinks(destination, ShardDtos.Direction.IN));
+        Future<List<ShardDtos.GroundLink>> before = fetches.submit(out::get);
+        Future<List<ShardDtos.GroundLink>> after = fetches.submit(in::get);
+        gather(fetches, before, after, origin, destination);
+        List<Transportation> firstLegs = done(before).stream().map(ShardedRouteEngine::toEntity).toList();
+        List<Transportation> lastLegs = done(after).stream().map(ShardedRouteEngine::toEntity).toList();
+
+        // Flights from the replicated table, restricted to the two neighborhoods
+        Set<String> departures = new HashSet<>();
+        departures.add(origin.getLocationCode());
+        firstLegs.forEach(t -> departures.add(t.getDestination().getLocationCode()));
+        Set<String> arrivals = new HashSet<>();
+        arrivals.add(destination.getLocationCode());
+        lastLegs.forEach(t -> arrivals.add(t.getOrigin().getLocationCode()));
+        List<Transportation> flights = transportationRepository
+                .findByTypeAndOriginLocationCodeInAndDestinationLocationCodeIn(
+                        TransportationType.FLIGHT, departures, arrivals);
+        trace.mark(RouteSearchTrace.Phase.FETCH);
+
+        // Join: [ground]? FLIGHT [ground]?
+        List<List<Transportation>> valid = new ArrayList<>();
+        for (Transportation f : flights) {
+            String from = f.getOrigin().getLocationCode();
+            String to = f.getDestination().getLocationCode();
+
+            List<Transportation> heads = new ArrayList<>();
+            if (from.equals(origin.getLocationCode())) heads.add(null);
+            for (Transportation g : firstLegs) {
+                if (g.getDestination().getLocationCode().equals(from)) heads.add(g);
+            }
+            List<Transportation> tails = new ArrayList<>();
+            if (to.equals(destination.getLocationCode())) tails.add(null);
+            for (Transportation g : lastLegs) {
+                if (g.getOrigin().getLocationCode().equals(to)) tails.add(g);
+            }
+
+            for (Transportation head : heads) {
+                for (Transportation tail : tails) {
+                    List<Transportation> path = new ArrayList<>(3);
+                    if (head != null) path.add(head);
+                    path.add(f);
+                    if (tail != null) path.add(tail);
+                    valid.add(path);
+                }
+            }
+        }
+        trace.mark(RouteSearchTrace.Phase.ENUMERATE);
+        trace.candidates(valid.size());
+
+        if (date != null) {
+            int dow = RouteRules.mapToCaseStudyDow(date.getDayOfWeek());
+            valid = valid.stream()
+                    .filter(path -> RouteRules.operatesOn(path, dow))
+                    .collect(Collectors.toList());
+        }
+        trace.mark(RouteSearchTrace.Phase.FILTER);
+
+        List<RouteDtos.Route> routes = valid.stream().map(RouteRules::toDto).collect(Collectors.toList());
+        trace.mark(RouteSearchTrace.Phase.MAP);
+        return routes;
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    /**
+     * Wait for both neighborhoods under one deadline, in completion order, so the first failure
+     * is seen at once; cancel (interrupt) both fetches when either fails or the deadline passes.
+     */
+    private void gather(CompletionService<List<ShardDtos.GroundLink>> fetches,
+                        Future<List<ShardDtos.GroundLink>> before, Future<List<ShardDtos.GroundLink>> after,
+                        Location origin, Location destination) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (int i = 0; i < 2; i++) {
+                Future<List<ShardDtos.GroundLink>> next =
+                        fetches.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    Location late = before.isDone() ? destination : origin;
+                    throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                            "Shard for region " + late.getCountry() + " did not answer in time");
+                }
+                try {
+                    next.get();
+                } catch (ExecutionException ex) {
+                    throw toHttpError(ex.getCause(), next == before ? origin : destination);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while gathering shards");
+        } finally {
+            before.cancel(true); // no-op when already done
+            after.cancel(true);
+        }
+    }
+
+    /** Result of a fetch that gather() saw complete. */
+    private static List<ShardDtos.GroundLink> done(Future<List<ShardDtos.GroundLink>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new IllegalStateException("Shard fetch not completed", ex);
+        }
+    }
+
+    /** Peer/client failures become 502 (504 when the peer timed out); HTTP errors pass through. */
+    private static RuntimeException toHttpError(Throwable cause, Location location) {
+        if (cause instanceof ResponseStatusException rse) return rse;
+        if (cause instanceof RestClientException rce) {
+            HttpStatus status = rce.getMostSpecificCause() instanceof SocketTimeoutException
+                    ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY;
+            return new ResponseStatusException(status,
+                    "Shard for region " + location.getCountry() + " unavailable: " + rce.getMessage(), rce);
+        }
+        if (cause instanceof RuntimeException re) return re;
+        return new IllegalStateException("Shard fetch failed", cause);
+    }
+
+    /** Transient (unmanaged) entity view of a remote link, for shared rules/mapping. */
+    private static Transportation toEntity(ShardDtos.GroundLink link) {
+        Location from = new Location();
+        from.setLocationCode(link.originCode());
+        Location to = new Location();
+        to.setLocationCode(link.destinationCode());
+
+        Transportation t = new Transportation();
+        t.setId(link.transportationId());
+        t.setOrigin(from);
+        t.setDestination(to);
+        t.setType(link.type());
+        t.setOperatingDays(link.operatingDays());
+        return t;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scatter.shutdownNow();
+    }
+}
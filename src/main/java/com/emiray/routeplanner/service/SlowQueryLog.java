@@ -0,0 +1,88 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SlowQueryLog
+ * Purpose: Bounded in-memory log of route searches slower than a threshold.
+ * Notes: Keeps the most recent N slow searches (oldest evicted first);
+ *        worst() returns them ordered by duration for on-demand inspection.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class SlowQueryLog {
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Deque<Entry> entries = new ArrayDeque<>();
+
+    public SlowQueryLog(@Value("${routes.slow-query.threshold-ms:500}") long thresholdMillis,
+                        @Value("${routes.slow-query.capacity:100}") int capacity) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.capacity = capacity;
+    }
+
+    /** One captured slow search. */
+    public record Entry(
+            String timestamp,
+            String originCode,
+            String destinationCode,
+            LocalDate date,
+            String engine,
+            int candidates,
+            int results,
+            double totalMillis,
+            Map<String, Double> phaseMillis
+    ) {}
+
+    /** Record the search if it exceeded the threshold. */
+    public void record(RouteQuery query, String engine, RouteSearchTrace trace, int results) {
+        long elapsed = trace.elapsedNanos();
+        if (elapsed < thresholdNanos) return;
+
+        Entry e = new Entry(
+                OffsetDateTime.now().toString(),
+                query.originCode(),
+                query.destinationCode(),
+                query.date(),
+                engine,
+                trace.candidates(),
+                results,
+                elapsed / 1e6,
+                trace.phaseMillis()
+        );
+        synchronized (entries) {
+            entries.addLast(e);
+            if (entries.size() > capacity) entries.removeFirst();
+        }
+    }
+
+    /** Slowest captured searches first, at most limit entries. */
+    public List<Entry> worst(int limit) {
+        List<Entry> copy;
+        synchronized (entries) {
+            copy = new ArrayList<>(entries);
+        }
+        copy.sort(Comparator.comparingDouble(Entry::totalMillis).reversed());
+        return copy.subList(0, Math.min(Math.max(limit, 0), copy.size()));
+    }
+
+    public long thresholdMillis() {
+        return thresholdNanos / 1_000_000L;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
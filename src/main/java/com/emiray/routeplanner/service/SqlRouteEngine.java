@@ -0,0 +1,75 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SqlRouteEngine
+ * Purpose: Route engine that runs the bounded-depth search in the database
+ *          (recursive CTE) and loads only the legs used by results.
+ * Notes: Suits networks too large to hold in heap; see RouteSqlRepository.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.dto.RouteDtos;
+import com.emiray.routeplanner.repository.RouteSqlRepository;
+import com.emiray.routeplanner.repository.TransportationRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+public class SqlRouteEngine implements RouteEngine {
+
+    public static final String NAME = "sql";
+
+    private final RouteSqlRepository routeSqlRepository;
+    private final TransportationRepository transportationRepository;
+
+    public SqlRouteEngine(RouteSqlRepository routeSqlRepository,
+                          TransportationRepository transportationRepository) {
+        this.routeSqlRepository = routeSqlRepository;
+        this.transportationRepository = transportationRepository;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean inMemory() {
+        return false;
+    }
+
+    @Override
+    public List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                            RouteSearchTrace trace) {
+        List<List<Long>> paths = routeSqlRepository.findRouteLegIds(origin.getId(), destination.getId());
+        trace.mark(RouteSearchTrace.Phase.ENUMERATE);
+        trace.candidates(paths.size()); // CTE prunes while recursing; only valid paths come back
+        if (paths.isEmpty()) return List.of();
+
+        Set<Long> ids = new HashSet<>();
+        paths.forEach(ids::addAll);
+        Map<Long, Transportation> byId = new HashMap<>();
+        transportationRepository.findAllById(ids).forEach(t -> byId.put(t.getId(), t));
+
+        List<List<Transportation>> valid = new ArrayList<>(paths.size());
+        for (List<Long> path : paths) {
+            valid.add(path.stream().map(byId::get).toList());
+        }
+        trace.mark(RouteSearchTrace.Phase.FETCH);
+
+        if (date != null) {
+            int dow = RouteRules.mapToCaseStudyDow(date.getDayOfWeek());
+            valid = valid.stream()
+                    .filter(path -> RouteRules.operatesOn(path, dow))
+                    .collect(Collectors.toList());
+        }
+        trace.mark(RouteSearchTrace.Phase.FILTER);
+
+        List<RouteDtos.Route> routes = valid.stream().map(RouteRules::toDto).collect(Collectors.toList());
+        trace.mark(RouteSearchTrace.Phase.MAP);
+        return routes;
+    }
+}
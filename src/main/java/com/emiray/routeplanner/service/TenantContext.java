@@ -0,0 +1,66 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: TenantContext
+ * Purpose: Current tenant (network dataset) of the executing thread.
+ * Notes: Set per request by TenantFilter from the X-Tenant-Id header
+ *        (absent = "default", the tenant of data.sql). Work handed to other
+ *        threads must be wrapped so the tenant travels with it.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+public final class TenantContext {
+
+    public static final String HEADER = "X-Tenant-Id";
+    public static final String DEFAULT = "default";
+
+    private static final Pattern VALID = Pattern.compile("^[a-z0-9][a-z0-9-]{0,31}$");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {}
+
+    /** Tenant of this thread (default when none was set). */
+    public static String current() {
+        String t = CURRENT.get();
+        return t == null ? DEFAULT : t;
+    }
+
+    public static boolean isValid(String tenant) {
+        return tenant != null && VALID.matcher(tenant).matches();
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /** Run a block as the given tenant, restoring the previous one afterwards. */
+    public static <T> T callAs(String tenant, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) CURRENT.remove(); else CURRENT.set(previous);
+        }
+    }
+
+    /** Capture the caller's tenant for a task that runs on another thread. */
+    public static Runnable wrap(Runnable task) {
+        String tenant = current();
+        return () -> callAs(tenant, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Capture the caller's tenant for a supplier that runs on another thread. */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        String tenant = current();
+        return () -> callAs(tenant, task);
+    }
+}
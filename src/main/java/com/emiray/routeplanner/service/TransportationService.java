@@ -1,8 +1,10 @@
 /* ──────────────────────────────────────────────────────────────────────────
  * Title: TransportationService
  * Purpose: Encapsulates business rules for creating/updating Transportation.
- * Notes: Validates existence and distinctness of origin/destination; maps
- *        domain entities to DTOs for API responses.
+ * Notes: Validates existence and distinctness of origin/destination and
+ *        operating days (1..7, stored sorted and de-duplicated); maps
+ *        domain entities to DTOs for API responses. Publishes a
+ *        NetworkChangedEvent after every write.
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner.service;
 
@@ -11,22 +13,29 @@ import com.emiray.routeplanner.domain.Transportation;
 import com.emiray.routeplanner.dto.TransportationDtos;
 import com.emiray.routeplanner.repository.LocationRepository;
 import com.emiray.routeplanner.repository.TransportationRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class TransportationService {
 
     private final TransportationRepository transportationRepository;
     private final LocationRepository locationRepository;
+    private final ApplicationEventPublisher events;
 
     public TransportationService(TransportationRepository transportationRepository,
-                                 LocationRepository locationRepository) {
+                                 LocationRepository locationRepository,
+                                 ApplicationEventPublisher events) {
         this.transportationRepository = transportationRepository;
         this.locationRepository = locationRepository;
+        this.events = events;
     }
 
     // ── Guards ──────────────────────────────────────────────────────────────
@@ -39,6 +48,18 @@ public class TransportationService {
         }
     }
 
+    /** Validate operating days (1=Mon ... 7=Sun) and normalize them; null/empty = every day. */
+    private static List<Integer> operatingDays(List<Integer> days) {
+        if (days == null || days.isEmpty()) return null;
+        for (Integer d : days) {
+            if (d == null || d < 1 || d > 7) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "operatingDays must contain day numbers 1..7, got " + d);
+            }
+        }
+        return days.stream().distinct().sorted().toList();
+    }
+
     // ── Commands ────────────────────────────────────────────────────────────
 
     /** Create a transportation after validating endpoints. */
@@ -48,12 +69,17 @@ public class TransportationService {
         Location destination = locationRepository.findById(req.destinationId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Destination not found"));
         assertDifferent(origin, destination);
+        List<Integer> days = operatingDays(req.operatingDays());
 
         Transportation t = new Transportation();
         t.setOrigin(origin);
         t.setDestination(destination);
         t.setType(req.type());
-        return transportationRepository.save(t);
+        t.setOperatingDays(days);
+        t.setCapacity(req.capacity());
+        Transportation saved = transportationRepository.save(t);
+        events.publishEvent(new NetworkChangedEvent(Set.of(origin.getId(), destination.getId())));
+        return saved;
     }
 
     /** Update an existing transportation after validating endpoints. */
@@ -66,11 +92,28 @@ public class TransportationService {
         Location destination = locationRepository.findById(req.destinationId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Destination not found"));
         assertDifferent(origin, destination);
+        List<Integer> days = operatingDays(req.operatingDays());
 
+        Set<Long> touched = new HashSet<>(List.of(
+                existing.getOrigin().getId(), existing.getDestination().getId(),
+                origin.getId(), destination.getId()));
         existing.setOrigin(origin);
         existing.setDestination(destination);
         existing.setType(req.type());
-        return transportationRepository.save(existing);
+        existing.setOperatingDays(days);
+        existing.setCapacity(req.capacity());
+        Transportation saved = transportationRepository.save(existing);
+        events.publishEvent(new NetworkChangedEvent(touched));
+        return saved;
+    }
+
+    /** Delete an existing transportation. */
+    public void delete(Long id) {
+        Transportation existing = transportationRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transportation not found"));
+        transportationRepository.delete(existing);
+        events.publishEvent(new NetworkChangedEvent(
+                Set.of(existing.getOrigin().getId(), existing.getDestination().getId())));
     }
 
     // ── Mapping ─────────────────────────────────────────────────────────────
@@ -83,7 +126,9 @@ public class TransportationService {
                 t.getOrigin().getLocationCode(),
                 t.getDestination().getId(),
                 t.getDestination().getLocationCode(),
-                t.getType()
+                t.getType(),
+                t.getOperatingDays(),
+                t.getCapacity()
         );
     }
 }
@@ -49,6 +49,33 @@ INSERT INTO locations (name, country, city, location_code) VALUES
                                                                ('Times Square',                 'US', 'New York', 'TSQ'),
                                                                ('Central Park',                 'US', 'New York', 'CPARK');
 
+-- ======================================================================
+-- COORDINATES (WGS84 degrees; used by /api/locations/nearby and near: selectors)
+-- ======================================================================
+UPDATE locations SET latitude = 41.0370, longitude = 28.9850 WHERE location_code = 'TAK';
+UPDATE locations SET latitude = 41.2753, longitude = 28.7519 WHERE location_code = 'IST';
+UPDATE locations SET latitude = 40.8986, longitude = 29.3092 WHERE location_code = 'SAW';
+UPDATE locations SET latitude = 40.9903, longitude = 29.0237 WHERE location_code = 'KDK';
+UPDATE locations SET latitude = 41.0256, longitude = 28.9742 WHERE location_code = 'GLT';
+UPDATE locations SET latitude = 38.2924, longitude = 27.1570 WHERE location_code = 'ADB';
+UPDATE locations SET latitude = 38.4189, longitude = 27.1287 WHERE location_code = 'KONAK';
+UPDATE locations SET latitude = 36.8987, longitude = 30.8005 WHERE location_code = 'AYT';
+UPDATE locations SET latitude = 36.1990, longitude = 29.6380 WHERE location_code = 'KAS';
+UPDATE locations SET latitude = 51.4700, longitude = -0.4543 WHERE location_code = 'LHR';
+UPDATE locations SET latitude = 51.5560, longitude = -0.2796 WHERE location_code = 'WEM';
+UPDATE locations SET latitude = 51.5074, longitude = -0.1278 WHERE location_code = 'LONCEN';
+UPDATE locations SET latitude = 49.0097, longitude = 2.5479 WHERE location_code = 'CDG';
+UPDATE locations SET latitude = 48.8584, longitude = 2.2945 WHERE location_code = 'EIF';
+UPDATE locations SET latitude = 48.8606, longitude = 2.3376 WHERE location_code = 'LOUVR';
+UPDATE locations SET latitude = 50.0379, longitude = 8.5622 WHERE location_code = 'FRA';
+UPDATE locations SET latitude = 50.1071, longitude = 8.6638 WHERE location_code = 'FRAH';
+UPDATE locations SET latitude = 50.1106, longitude = 8.6821 WHERE location_code = 'ROMER';
+UPDATE locations SET latitude = 35.5494, longitude = 139.7798 WHERE location_code = 'HND';
+UPDATE locations SET latitude = 35.6896, longitude = 139.7006 WHERE location_code = 'SHINJ';
+UPDATE locations SET latitude = 40.6413, longitude = -73.7781 WHERE location_code = 'JFK';
+UPDATE locations SET latitude = 40.7580, longitude = -73.9855 WHERE location_code = 'TSQ';
+UPDATE locations SET latitude = 40.7829, longitude = -73.9654 WHERE location_code = 'CPARK';
+
 -- ======================================================================
 -- TRANSPORTATIONS (GROUND / METRO / RIDE-HAIL)
 -- ======================================================================
@@ -6,15 +6,36 @@
  * ────────────────────────────────────────────────────────────────────────── */
 package com.emiray.routeplanner;
 
+import com.emiray.routeplanner.controller.SearchAnalyticsController;
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.TransportationType;
 import com.emiray.routeplanner.dto.RouteDtos;
+import com.emiray.routeplanner.dto.SearchLogDtos;
+import com.emiray.routeplanner.dto.TransportationDtos;
+import com.emiray.routeplanner.repository.LocationRepository;
+import com.emiray.routeplanner.service.PackedRouteList;
+import com.emiray.routeplanner.service.ReachabilityIndex;
+import com.emiray.routeplanner.service.RouteCalendarService;
+import com.emiray.routeplanner.service.RouteOverlay;
+import com.emiray.routeplanner.service.RouteQuery;
+import com.emiray.routeplanner.service.RouteSearchLogWriter;
 import com.emiray.routeplanner.service.RouteService;
+import com.emiray.routeplanner.service.TenantContext;
+import com.emiray.routeplanner.service.TransportationService;
+import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 class RouteServiceIntegrationTest {
@@ -22,6 +43,24 @@ class RouteServiceIntegrationTest {
     @Autowired
     private RouteService routeService;
 
+    @Autowired
+    private TransportationService transportationService;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private ReachabilityIndex reachability;
+
+    @Autowired
+    private RouteCalendarService calendarService;
+
+    @Autowired
+    private RouteSearchLogWriter searchLog;
+
+    @Autowired
+    private SearchAnalyticsController analytics;
+
     /** TAK ➝ WEM: should return 6 valid routes (per case study example). */
     @Test
     void takToWem_shouldHave6Routes() {
@@ -50,4 +89,222 @@ class RouteServiceIntegrationTest {
         int actual = routeService.findRoutes("TAK", "IST", null).size();
         assertThat(actual).isZero();
     }
+
+    /** Reachability index should agree with the full search on existence. */
+    @Test
+    void reachability_matchesSearchResults() {
+        assertThat(routeService.routeExists("TAK", "WEM", null).exists()).isTrue();
+        assertThat(routeService.routeExists("IST", "LHR", null).exists()).isTrue();
+        assertThat(routeService.routeExists("TAK", "IST", null).exists()).isFalse();
+    }
+
+    /** Indexed (packed, lazily mapped) engine returns the same routes as the reference engine. */
+    @Test
+    void indexedEngine_matchesReferenceEngine() {
+        for (LocalDate date : Arrays.asList(null, LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 12))) {
+            List<RouteDtos.Route> reference = routeService.findRoutes(new RouteQuery("TAK", "WEM", date, "memory"));
+            List<RouteDtos.Route> indexed = routeService.findRoutes(new RouteQuery("TAK", "WEM", date, "indexed"));
+            assertThat(indexed).containsExactlyInAnyOrderElementsOf(reference);
+        }
+    }
+
+    /** Sharded engine (this instance owns every region) returns the same routes as the reference engine. */
+    @Test
+    void shardedEngine_matchesReferenceEngine() {
+        String[][] pairs = {{"TAK", "WEM"}, {"IST", "LHR"}, {"TAK", "LHR"}, {"TAK", "IST"}};
+        int[] expected = {6, 1, 3, 0};
+        for (int i = 0; i < pairs.length; i++) {
+            List<RouteDtos.Route> reference = routeService.findRoutes(
+                    new RouteQuery(pairs[i][0], pairs[i][1], null, "memory"));
+            List<RouteDtos.Route> sharded = routeService.findRoutes(
+                    new RouteQuery(pairs[i][0], pairs[i][1], null, "sharded"));
+            assertThat(sharded).hasSize(expected[i]).containsExactlyInAnyOrderElementsOf(reference);
+        }
+    }
+
+    /** The served result stays lazy through coalescing: DTOs are mapped only when read. */
+    @Test
+    void indexedEngine_resultStaysLazyThroughService() {
+        List<RouteDtos.Route> routes = routeService.findRoutes(new RouteQuery("TAK", "WEM", null, "indexed"));
+        assertThat(routes).isInstanceOf(PackedRouteList.class).hasSize(6);
+    }
+
+    /** Writes update the reachability index by recomputing only the affected origin rows. */
+    @Test
+    void reachability_followsTransportationWrites() {
+        TenantContext.callAs("reach-test", () -> {
+            Location a = location("RCHA");
+            Location b = location("RCHB");
+            Location c = location("RCHC");
+            Location d = location("RCHD");
+            location("RCHE"); // unrelated, must not be recomputed
+            transportationService.create(leg(a, b, TransportationType.BUS));
+            transportationService.create(leg(b, c, TransportationType.FLIGHT));
+            assertThat(routeService.routeExists("RCHA", "RCHC", null).exists()).isTrue();
+            assertThat(routeService.routeExists("RCHA", "RCHD", null).exists()).isFalse();
+
+            long incremental = reachability.stats().incrementalUpdates();
+            Long added = transportationService.create(leg(c, d, TransportationType.BUS)).getId();
+            assertThat(routeService.routeExists("RCHA", "RCHD", null).exists()).isTrue();
+            assertThat(reachability.stats().incrementalUpdates()).isEqualTo(incremental + 1);
+            assertThat(reachability.stats().lastRowsRecomputed()).isLessThan(reachability.stats().locations());
+
+            transportationService.delete(added);
+            assertThat(routeService.routeExists("RCHA", "RCHD", null).exists()).isFalse();
+            assertThat(reachability.stats().incrementalUpdates()).isEqualTo(incremental + 2);
+            return null;
+        });
+    }
+
+    /** Calendar counts per date equal the dated search; malformed operating days are rejected on write. */
+    @Test
+    void calendar_matchesDatedSearchForEveryDay() {
+        TenantContext.callAs("calendar-test", () -> {
+            Location a = location("CALA");
+            Location b = location("CALB");
+            Location c = location("CALC");
+            transportationService.create(leg(a, b, TransportationType.BUS, List.of(1, 2, 3)));
+            transportationService.create(leg(b, c, TransportationType.FLIGHT, List.of(2, 3, 4, 5)));
+            transportationService.create(leg(a, c, TransportationType.FLIGHT, List.of(6, 7)));
+
+            LocalDate from = LocalDate.of(2025, 1, 6);
+            List<RouteDtos.CalendarDay> days = calendarService.calendar("CALA", "CALC", from, from.plusDays(13), false);
+            assertThat(days).hasSize(14);
+            for (RouteDtos.CalendarDay day : days) {
+                assertThat(day.routeCount()).as(day.date().toString())
+                        .isEqualTo(routeService.findRoutes("CALA", "CALC", day.date()).size());
+            }
+            assertThat(days).extracting(RouteDtos.CalendarDay::routeCount).containsSubsequence(0, 1, 1, 0, 0, 1, 1);
+
+            assertThatThrownBy(() -> transportationService.create(
+                    leg(a, c, TransportationType.BUS, Arrays.asList(1, 8))))
+                    .isInstanceOf(ResponseStatusException.class);
+            return null;
+        });
+    }
+
+    /** Captured searches are flushed to route_search_log and aggregated by the analytics endpoints. */
+    @Test
+    void searchLog_analyticsAggregateFlushedRows() throws Exception {
+        TenantContext.callAs("analytics-test", () -> {
+            for (int i = 0; i < 3; i++) searchLog.capture(new RouteQuery("AAA", "BBB", null), "memory", 2, 1_000_000);
+            for (int i = 0; i < 2; i++) searchLog.capture(new RouteQuery("CCC", "DDD", null), "memory", 0, 3_000_000);
+            for (int i = 0; i < 4; i++) {
+                searchLog.capture(new RouteQuery("EEE", "FFF", null), "memory", i == 0 ? 0 : 1, 1_000_000);
+            }
+            return null;
+        });
+
+        List<SearchLogDtos.PairStats> top = List.of();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (top.stream().mapToLong(SearchLogDtos.PairStats::searches).sum() < 9) {
+            assertThat(System.currentTimeMillis()).as("search log not flushed").isLessThan(deadline);
+            Thread.sleep(50);
+            top = TenantContext.callAs("analytics-test", () -> analytics.topPairs(24, 20));
+        }
+
+        assertThat(top).extracting(SearchLogDtos.PairStats::origin, SearchLogDtos.PairStats::searches,
+                        SearchLogDtos.PairStats::zeroResultSearches)
+                .containsExactly(tuple("EEE", 4L, 1L), tuple("AAA", 3L, 0L), tuple("CCC", 2L, 2L));
+
+        // Ordered by empty searches; "searches" still counts every search of the pair
+        List<SearchLogDtos.PairStats> zero = TenantContext.callAs("analytics-test",
+                () -> analytics.zeroResultPairs(24, 20));
+        assertThat(zero).extracting(SearchLogDtos.PairStats::origin, SearchLogDtos.PairStats::searches,
+                        SearchLogDtos.PairStats::zeroResultSearches)
+                .containsExactly(tuple("CCC", 2L, 2L), tuple("EEE", 4L, 1L));
+        assertThat(zero.get(0).avgLatencyMillis()).isEqualTo(3.0);
+    }
+
+    /** Out-of-range window or limit is a constraint violation (400), not an error from PageRequest (500). */
+    @Test
+    void searchAnalytics_rejectsOutOfRangeParameters() {
+        assertThatThrownBy(() -> analytics.topPairs(24, 0)).isInstanceOf(ConstraintViolationException.class);
+        assertThatThrownBy(() -> analytics.zeroResultPairs(-1, 20)).isInstanceOf(ConstraintViolationException.class);
+        assertThatThrownBy(() -> analytics.topPairs(24, 10_000)).isInstanceOf(ConstraintViolationException.class);
+    }
+
+    /** An overlong selector is clipped to the column length instead of failing the batch it is flushed in. */
+    @Test
+    void searchLog_overlongSelectorIsClipped() throws Exception {
+        String selector = "city:" + "X".repeat(250);
+        long failed = searchLog.stats().failedBatches();
+        TenantContext.callAs("analytics-long", () -> {
+            searchLog.capture(new RouteQuery(selector, "LHR", null), "multi-source", 0, 1_000_000);
+            searchLog.capture(new RouteQuery("TAK", "LHR", null), "memory", 3, 1_000_000);
+            return null;
+        });
+
+        List<SearchLogDtos.PairStats> top = List.of();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (top.size() < 2) {
+            assertThat(System.currentTimeMillis()).as("search log not flushed").isLessThan(deadline);
+            Thread.sleep(50);
+            top = TenantContext.callAs("analytics-long", () -> analytics.topPairs(24, 20));
+        }
+        assertThat(top).extracting(SearchLogDtos.PairStats::origin).contains("TAK", selector.substring(0, 64));
+        assertThat(searchLog.stats().failedBatches()).isEqualTo(failed);
+    }
+
+    private Location location(String code) {
+        Location l = new Location();
+        l.setName(code);
+        l.setCountry("TR");
+        l.setCity("Test");
+        l.setLocationCode(code);
+        return locationRepository.save(l);
+    }
+
+    private static TransportationDtos.UpsertRequest leg(Location from, Location to, TransportationType type) {
+        return leg(from, to, type, null);
+    }
+
+    private static TransportationDtos.UpsertRequest leg(Location from, Location to, TransportationType type,
+                                                        List<Integer> operatingDays) {
+        return new TransportationDtos.UpsertRequest(from.getId(), to.getId(), type, operatingDays, null);
+    }
+
+    /** What-if overlay: avoided hubs remove routes, extra links add them; base network unchanged. */
+    @Test
+    void whatIf_overlayAppliesOnlyToThatQuery() {
+        RouteOverlay avoidLhr = new RouteOverlay(null, Set.of("LHR"), null);
+        assertThat(routeService.findRoutes(new RouteQuery("TAK", "LHR", null, null, avoidLhr))).isEmpty();
+
+        RouteOverlay extraFlight = new RouteOverlay(null, null, List.of(
+                new RouteOverlay.ExtraLink("TAK", "IST", TransportationType.FLIGHT, null)));
+        List<RouteDtos.Route> routes = routeService.findRoutes(new RouteQuery("TAK", "IST", null, null, extraFlight));
+        assertThat(routes).hasSize(1);
+        assertThat(routes.get(0).legs().get(0).transportationId()).isNull();
+
+        assertThat(routeService.findRoutes("TAK", "IST", null)).isEmpty();
+        assertThat(routeService.findRoutes("TAK", "LHR", null)).hasSize(3);
+    }
+
+    /** city: selector returns exactly the union of the per-location searches. */
+    @Test
+    void citySelector_matchesUnionOfPairQueries() {
+        int perPair = 0;
+        for (String code : List.of("TAK", "IST", "SAW", "KDK", "GLT")) {
+            perPair += routeService.findRoutes(code, "LHR", null).size();
+        }
+        assertThat(routeService.findRoutes("city:Istanbul", "LHR", null)).hasSize(perPair).isNotEmpty();
+    }
+
+    /** near: selector seeds from locations in the radius, nearest start first. */
+    @Test
+    void nearSelector_ranksByDistanceFromPoint() {
+        int expected = routeService.findRoutes("TAK", "LHR", null).size()
+                + routeService.findRoutes("GLT", "LHR", null).size();
+        List<RouteDtos.Route> routes = routeService.findRoutes("near:41.0370,28.9850,5", "LHR", null);
+        assertThat(routes).hasSize(expected);
+        assertThat(routes.get(0).legs().get(0).originCode()).isEqualTo("TAK");
+    }
+
+    /** Sample data belongs to the default tenant; another tenant sees an empty network. */
+    @Test
+    void otherTenant_doesNotSeeDefaultNetwork() {
+        assertThatThrownBy(() -> TenantContext.callAs("acme", () -> routeService.findRoutes("TAK", "WEM", null)))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(routeService.findRoutes("TAK", "WEM", null)).hasSize(6);
+    }
 }
@@ -0,0 +1,65 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SqlRouteSearchIntegrationTest
+ * Purpose: Validate the database-side (recursive CTE) route search against
+ *          the same case-study scenarios as the in-memory search.
+ * Notes: Uses its own in-memory H2 database (separate Spring context would
+ *        otherwise re-run data.sql against the shared one); engine via property.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner;
+
+import com.emiray.routeplanner.dto.RouteDtos;
+import com.emiray.routeplanner.service.NetworkState;
+import com.emiray.routeplanner.service.RouteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "routes.engine=sql",
+        "spring.datasource.url=jdbc:h2:mem:routeplanner-sql;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"
+})
+class SqlRouteSearchIntegrationTest {
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private NetworkState networkState;
+
+    /** TAK ➝ WEM: should return 6 valid routes. */
+    @Test
+    void takToWem_shouldHave6Routes() {
+        assertThat(routeService.findRoutes("TAK", "WEM", null)).hasSize(6);
+    }
+
+    /** IST ➝ LHR: should be exactly one direct flight. */
+    @Test
+    void istToLhr_shouldBeSingleFlight() {
+        List<RouteDtos.Route> routes = routeService.findRoutes("IST", "LHR", null);
+        assertThat(routes).hasSize(1);
+        assertThat(routes.get(0).legs()).hasSize(1);
+    }
+
+    /** TAK ➝ LHR: should produce 3 valid route options. */
+    @Test
+    void takToLhr_shouldHave3Routes() {
+        assertThat(routeService.findRoutes("TAK", "LHR", null)).hasSize(3);
+    }
+
+    /** TAK ➝ IST: should yield zero valid routes. */
+    @Test
+    void takToIst_shouldHaveZeroRoutes() {
+        assertThat(routeService.findRoutes("TAK", "IST", null)).isEmpty();
+    }
+
+    /** The sql engine must not pull the network into heap (no reachability short-circuit). */
+    @Test
+    void sqlEngine_doesNotLoadInMemoryNetwork() {
+        assertThat(routeService.findRoutes("TAK", "IST", null)).isEmpty();
+        assertThat(networkState.stats().loadedTenants()).isZero();
+    }
+}
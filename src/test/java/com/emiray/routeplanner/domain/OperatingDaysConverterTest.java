@@ -0,0 +1,34 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: OperatingDaysConverterTest
+ * Purpose: Verify the operating-days column mapping: round trip of valid
+ *          days, and a column with any malformed token read as every day.
+ * Notes: Plain JUnit (no Spring context).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OperatingDaysConverterTest {
+
+    private final OperatingDaysConverter converter = new OperatingDaysConverter();
+
+    /** Valid days survive a write/read round trip; no days is a NULL column. */
+    @Test
+    void validDays_roundTrip() {
+        assertThat(converter.convertToDatabaseColumn(List.of(1, 3, 5))).isEqualTo("1,3,5");
+        assertThat(converter.convertToEntityAttribute("1, 3,5")).containsExactly(1, 3, 5);
+        assertThat(converter.convertToDatabaseColumn(List.of())).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isEmpty();
+    }
+
+    /** Any malformed token makes the whole column mean every day, as RouteRules does. */
+    @Test
+    void malformedToken_readsAsEveryDay() {
+        assertThat(converter.convertToEntityAttribute("1,9")).isEmpty();
+        assertThat(converter.convertToEntityAttribute("1,x")).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: NetworkStateEvictionTest
+ * Purpose: Verify per-tenant snapshot eviction: idle tenants are dropped by
+ *          the sweep, and loading a tenant over the memory budget evicts the
+ *          least recently used one immediately.
+ * Notes: Plain JUnit (no Spring context); repositories are TestNetworks
+ *        mocks serving a generated location list per tenant.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NetworkStateEvictionTest {
+
+    /** ~0.75 MB per tenant (snapshot + 8-slot reachability matrix), so two exceed a 1 MB budget. */
+    private static final int LOCATIONS_PER_TENANT = 700;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private NetworkState state(long idleEvictMillis, long budgetMb) {
+        return new NetworkState(TestNetworks.locations(() -> locationsOf(TenantContext.current())),
+                TestNetworks.transportations(List::of), events::add, idleEvictMillis, budgetMb, true);
+    }
+
+    /** Tenants not read for longer than the idle timeout are evicted by the sweep. */
+    @Test
+    void idleTenant_isEvictedBySweep() throws Exception {
+        NetworkState state = state(10, 1024);
+        state.current("alpha");
+        assertThat(state.stats().loadedTenants()).isEqualTo(1);
+
+        Thread.sleep(30);
+        state.evict();
+
+        assertThat(state.stats().loadedTenants()).isZero();
+        assertThat(state.stats().idleEvictions()).isEqualTo(1);
+        assertThat(events).contains(new NetworkEvictedEvent("alpha"));
+    }
+
+    /** A load that pushes the estimate over budget evicts the least recently used tenant at once. */
+    @Test
+    void loadOverBudget_evictsLeastRecentlyUsed() throws Exception {
+        NetworkState state = state(Long.MAX_VALUE, 1);
+        state.current("alpha");
+        Thread.sleep(5);
+        state.current("beta");
+
+        assertThat(state.stats().tenants()).extracting(NetworkState.TenantStats::tenant).containsExactly("beta");
+        assertThat(state.stats().budgetEvictions()).isEqualTo(1);
+        assertThat(events).contains(new NetworkEvictedEvent("alpha"));
+
+        state.current("alpha"); // reloaded lazily; now beta is the least recently used
+        assertThat(state.stats().tenants()).extracting(NetworkState.TenantStats::tenant).containsExactly("alpha");
+        assertThat(state.stats().loads()).isEqualTo(3);
+    }
+
+    private static List<Location> locationsOf(String tenant) {
+        List<Location> out = new ArrayList<>(LOCATIONS_PER_TENANT);
+        for (int i = 0; i < LOCATIONS_PER_TENANT; i++) {
+            Location l = TestNetworks.location((long) i + 1, "L" + i);
+            l.setName(tenant + i);
+            l.setCity(tenant);
+            out.add(l);
+        }
+        return out;
+    }
+}
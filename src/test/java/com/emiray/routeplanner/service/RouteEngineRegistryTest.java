@@ -0,0 +1,78 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteEngineRegistryTest
+ * Purpose: Verify engine selection: the configured primary when no
+ *          X-Route-Engine value is given, the named engine otherwise, and
+ *          rejection of unknown or duplicate names.
+ * Notes: Plain JUnit (no Spring context); engines are fixed-result stubs.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteEngineRegistryTest {
+
+    private final RouteEngine memory = engine("memory");
+    private final RouteEngine indexed = engine("indexed");
+    private final RouteEngineRegistry registry = new RouteEngineRegistry(List.of(memory, indexed), "indexed");
+
+    /** No header (null or blank) selects the configured primary engine. */
+    @Test
+    void missingHeader_selectsPrimary() {
+        assertThat(registry.primary()).isSameAs(indexed);
+        assertThat(registry.resolve(null)).isSameAs(indexed);
+        assertThat(registry.resolve("  ")).isSameAs(indexed);
+    }
+
+    /** A header value selects that engine (surrounding whitespace ignored). */
+    @Test
+    void header_selectsNamedEngine() {
+        assertThat(registry.resolve("memory")).isSameAs(memory);
+        assertThat(registry.resolve(" memory ")).isSameAs(memory);
+        assertThat(registry.names()).containsExactly("memory", "indexed");
+    }
+
+    /** An unknown header value is a client error listing the available engines. */
+    @Test
+    void unknownEngine_isBadRequest() {
+        assertThatThrownBy(() -> registry.resolve("quantum"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("memory")
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(registry.find("quantum")).isNull();
+    }
+
+    /** Misconfiguration fails at startup. */
+    @Test
+    void unknownPrimaryOrDuplicateName_failsFast() {
+        assertThatThrownBy(() -> new RouteEngineRegistry(List.of(memory), "indexed"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new RouteEngineRegistry(List.of(memory, engine("memory")), "memory"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static RouteEngine engine(String name) {
+        return new RouteEngine() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                                    RouteSearchTrace trace) {
+                return List.of();
+            }
+        };
+    }
+}
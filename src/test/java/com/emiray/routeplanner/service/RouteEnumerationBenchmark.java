@@ -0,0 +1,135 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteEnumerationBenchmark
+ * Purpose: JMH microbenchmark of route search on a synthetic network,
+ *          reference engine (full-list candidates, stream filters, per-route
+ *          leg lists) vs. indexed engine (packed leg-index buffers, lazy DTOs).
+ * Notes: Not a unit test (surefire ignores it). Both engines are called
+ *        through RouteEngine.findRoutes; the "coalesced" variants also go
+ *        through RouteQueryCoalescer as RouteService does, and "serialized"
+ *        reads every route as the response serializer would. Repositories are
+ *        TestNetworks mocks; findAll returns a fresh list per call, as JPA
+ *        would for the reference engine. Run with the GC profiler and compare
+ *        gc.alloc.rate.norm (bytes per search), e.g.
+ *          ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *            -Dexec.mainClass=com.emiray.routeplanner.service.RouteEnumerationBenchmark
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteEnumerationBenchmark {
+
+    private static final TransportationType[] GROUND = {
+            TransportationType.BUS, TransportationType.SUBWAY, TransportationType.UBER
+    };
+    private static final int AIRPORTS = 3;
+
+    /** Cities in the synthetic network; each has AIRPORTS airports and one ground location. */
+    @Param({"10"})
+    public int cities;
+
+    @Param({BruteForceRouteEngine.NAME, IndexedRouteEngine.NAME})
+    public String engine;
+
+    private RouteEngine routeEngine;
+    private RouteQueryCoalescer coalescer;
+    private RouteQuery query;
+    private Location origin;
+    private Location destination;
+
+    @Setup
+    public void setUp() {
+        List<Location> locations = new ArrayList<>();
+        List<Transportation> legs = new ArrayList<>();
+        long[] ids = {1, 1};
+        Location[][] airports = new Location[cities][AIRPORTS];
+        Location[] centers = new Location[cities];
+        for (int c = 0; c < cities; c++) {
+            centers[c] = location(ids, "C" + c, locations);
+            for (int a = 0; a < AIRPORTS; a++) {
+                airports[c][a] = location(ids, "A" + c + "X" + a, locations);
+                for (TransportationType type : GROUND) {
+                    legs.add(leg(ids, centers[c], airports[c][a], type));
+                    legs.add(leg(ids, airports[c][a], centers[c], type));
+                }
+            }
+        }
+        for (int c = 0; c < cities; c++) {
+            for (int k = 0; k < cities; k++) {
+                if (c == k) continue;
+                for (Location from : airports[c]) {
+                    for (Location to : airports[k]) legs.add(leg(ids, from, to, TransportationType.FLIGHT));
+                }
+            }
+        }
+
+        routeEngine = switch (engine) {
+            case BruteForceRouteEngine.NAME -> new BruteForceRouteEngine(TestNetworks.transportations(() -> legs));
+            case IndexedRouteEngine.NAME ->
+                    new IndexedRouteEngine(TestNetworks.networkState(() -> locations, () -> legs, event -> {}));
+            default -> throw new IllegalArgumentException(engine);
+        };
+        coalescer = new RouteQueryCoalescer(true, 5_000);
+        origin = centers[0];
+        destination = centers[1];
+        query = new RouteQuery(origin.getLocationCode(), destination.getLocationCode(), null, engine);
+    }
+
+    private static Location location(long[] ids, String code, List<Location> out) {
+        Location l = TestNetworks.location(ids[0]++, code, "XX");
+        out.add(l);
+        return l;
+    }
+
+    private static Transportation leg(long[] ids, Location from, Location to, TransportationType type) {
+        return TestNetworks.leg(ids[1]++, from, to, type);
+    }
+
+    // ── Benchmarks ──────────────────────────────────────────────────────────
+
+    /** Engine only, result not read. */
+    @Benchmark
+    public List<RouteDtos.Route> search() {
+        return routeEngine.findRoutes(origin, destination, null, new RouteSearchTrace());
+    }
+
+    /** Through the coalescer, as RouteService serves it (result not read). */
+    @Benchmark
+    public List<RouteDtos.Route> searchCoalesced() {
+        return coalescer.execute(query, () -> routeEngine.findRoutes(origin, destination, null, new RouteSearchTrace()));
+    }
+
+    /** Through the coalescer, then every route read as during serialization. */
+    @Benchmark
+    public void searchCoalescedSerialized(Blackhole bh) {
+        for (RouteDtos.Route route : searchCoalesced()) {
+            bh.consume(route.legs());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteEnumerationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteQueryCoalescerTest
+ * Purpose: Verify single-flight behavior of identical concurrent queries.
+ * Notes: Plain JUnit (no Spring context); uses latches to force overlap.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteQueryCoalescerTest {
+
+    private static final RouteQuery KEY = new RouteQuery("TAK", "WEM", null);
+
+    /** Concurrent identical queries should run the computation once. */
+    @Test
+    void identicalConcurrentQueries_shareOneComputation() throws Exception {
+        RouteQueryCoalescer coalescer = new RouteQueryCoalescer(true, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<List<RouteDtos.Route>> leader = pool.submit(() -> coalescer.execute(KEY, () -> {
+                computations.incrementAndGet();
+                await(release);
+                return List.of(new RouteDtos.Route(List.of()));
+            }));
+            waitUntil(() -> coalescer.stats().inFlightKeys() == 1);
+
+            Future<List<RouteDtos.Route>> w1 = pool.submit(() -> coalescer.execute(KEY, List::of));
+            Future<List<RouteDtos.Route>> w2 = pool.submit(() -> coalescer.execute(KEY, List::of));
+            waitUntil(() -> coalescer.stats().currentWaiters() == 2);
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(w1.get(5, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(w2.get(5, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(computations.get()).isEqualTo(1);
+            assertThat(coalescer.stats().coalesced()).isEqualTo(2);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    /** Waiters should time out instead of stalling behind a slow leader. */
+    @Test
+    void slowLeader_waitersTimeOut() throws Exception {
+        RouteQueryCoalescer coalescer = new RouteQueryCoalescer(true, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> coalescer.execute(KEY, () -> {
+                await(release);
+                return List.of();
+            }));
+            waitUntil(() -> coalescer.stats().inFlightKeys() == 1);
+
+            assertThatThrownBy(() -> coalescer.execute(KEY, List::of))
+                    .isInstanceOf(ResponseStatusException.class);
+            assertThat(coalescer.stats().timeouts()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
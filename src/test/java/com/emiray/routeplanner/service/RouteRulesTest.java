@@ -0,0 +1,57 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteRulesTest
+ * Purpose: Verify the operating-day rule: listed days restrict a leg, and
+ *          null/empty or malformed lists mean the leg runs every day.
+ * Notes: Plain JUnit (no Spring context).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteRulesTest {
+
+    private static final Location X = TestNetworks.location(1L, "XXX");
+    private static final Location Y = TestNetworks.location(2L, "YYY");
+
+    /** Listed days set their bits (bit 0 = Monday). */
+    @Test
+    void validDays_restrictToThoseDays() {
+        Transportation t = leg(1, 3, 7);
+        assertThat(RouteRules.operatingDayMask(t)).isEqualTo(0b1000101);
+        assertThat(RouteRules.operatesOn(List.of(t), 3)).isTrue();
+        assertThat(RouteRules.operatesOn(List.of(t), 2)).isFalse();
+    }
+
+    /** null and empty lists mean every day. */
+    @Test
+    void absentDays_meanEveryDay() {
+        assertThat(RouteRules.operatingDayMask(leg())).isEqualTo(RouteNetwork.ALL_DAYS);
+        Transportation t = leg();
+        t.setOperatingDays(null);
+        assertThat(RouteRules.operatingDayMask(t)).isEqualTo(RouteNetwork.ALL_DAYS);
+    }
+
+    /** One malformed value discards the whole list: [1, 9] runs daily, not Monday only. */
+    @Test
+    void malformedDay_meansEveryDay() {
+        assertThat(RouteRules.operatingDayMask(leg(1, 9))).isEqualTo(RouteNetwork.ALL_DAYS);
+        assertThat(RouteRules.operatingDayMask(leg(0, 2))).isEqualTo(RouteNetwork.ALL_DAYS);
+        assertThat(RouteRules.operatingDayMask(leg(2, null))).isEqualTo(RouteNetwork.ALL_DAYS);
+        assertThat(RouteRules.operatesOn(List.of(leg(1, 9), leg(2, 3)), 2)).isTrue();
+        assertThat(RouteRules.operatesOn(List.of(leg(1, 9), leg(2, 3)), 1)).isFalse();
+    }
+
+    private static Transportation leg(Integer... days) {
+        Transportation t = TestNetworks.leg(1L, X, Y, TransportationType.FLIGHT);
+        t.setOperatingDays(Arrays.asList(days));
+        return t;
+    }
+}
@@ -0,0 +1,73 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSearchEventTest
+ * Purpose: Verify the JFR route-search event: it is skipped when no
+ *          recording is active, and a committed event carries its fields
+ *          (phase times as durations) into a recording.
+ * Notes: Plain JUnit (no Spring context); records to a temporary file.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteSearchEventTest {
+
+    private static final String EVENT_NAME = "com.emiray.routeplanner.RouteSearch";
+
+    /** Without an active recording the event is not committed (no field work in RouteService). */
+    @Test
+    void noRecording_shouldNotCommit() {
+        RouteSearchEvent event = new RouteSearchEvent();
+        event.begin();
+        event.end();
+        assertThat(event.shouldCommit()).isFalse();
+    }
+
+    /** A committed event appears in the recording with its fields. */
+    @Test
+    void committedEvent_isRecordedWithFields(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("route-search.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            RouteSearchEvent event = new RouteSearchEvent();
+            event.begin();
+            event.end();
+            assertThat(event.shouldCommit()).isTrue();
+            event.origin = "TAK";
+            event.destination = "WEM";
+            event.engine = "indexed";
+            event.candidates = 9;
+            event.results = 6;
+            event.enumerateTime = 1_500_000;
+            event.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(EVENT_NAME))
+                .toList();
+        assertThat(events).singleElement().satisfies(e -> {
+            assertThat(e.getString("origin")).isEqualTo("TAK");
+            assertThat(e.getString("destination")).isEqualTo("WEM");
+            assertThat(e.getString("date")).isNull();
+            assertThat(e.getString("engine")).isEqualTo("indexed");
+            assertThat(e.getInt("candidates")).isEqualTo(9);
+            assertThat(e.getInt("results")).isEqualTo(6);
+            assertThat(e.getDuration("enumerateTime")).isEqualTo(Duration.ofNanos(1_500_000));
+            assertThat(e.getEventType().getCategoryNames()).containsExactly("Route Planner");
+        });
+    }
+}
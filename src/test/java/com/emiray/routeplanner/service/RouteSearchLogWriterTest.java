@@ -0,0 +1,62 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteSearchLogWriterTest
+ * Purpose: Verify load shedding of the search-log buffer: entries above the
+ *          high-water mark are sampled, entries beyond capacity are dropped,
+ *          and both are counted.
+ * Notes: Plain JUnit (no Spring context); the background writer is not
+ *        started, so the buffer only fills. Sample rates 0 and 1 make the
+ *        sampling decision deterministic.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteSearchLogWriterTest {
+
+    private static final RouteQuery QUERY = new RouteQuery("TAK", "WEM", null);
+
+    private static RouteSearchLogWriter writer(int capacity, double highWater, double sampleRate) {
+        return new RouteSearchLogWriter(null, true, capacity, highWater, sampleRate, 500, 1000);
+    }
+
+    /** Above the high-water mark a 0 sample rate keeps nothing; nothing is dropped. */
+    @Test
+    void aboveHighWater_entriesAreSampledOut() {
+        RouteSearchLogWriter writer = writer(10, 0.5, 0.0);
+        for (int i = 0; i < 20; i++) writer.capture(QUERY, "memory", 6, 1_000_000);
+
+        RouteSearchLogWriter.Stats stats = writer.stats();
+        assertThat(stats.captured()).isEqualTo(20);
+        assertThat(stats.buffered()).isEqualTo(5);
+        assertThat(stats.sampledOut()).isEqualTo(15);
+        assertThat(stats.dropped()).isZero();
+    }
+
+    /** With everything sampled in, entries that do not fit the buffer are dropped. */
+    @Test
+    void fullBuffer_entriesAreDropped() {
+        RouteSearchLogWriter writer = writer(10, 1.0, 1.0);
+        for (int i = 0; i < 15; i++) writer.capture(QUERY, "memory", 6, 1_000_000);
+
+        RouteSearchLogWriter.Stats stats = writer.stats();
+        assertThat(stats.captured()).isEqualTo(15);
+        assertThat(stats.buffered()).isEqualTo(10);
+        assertThat(stats.sampledOut()).isZero();
+        assertThat(stats.dropped()).isEqualTo(5);
+    }
+
+    /** Every capture lands in the latency histogram, including shed ones. */
+    @Test
+    void latencyHistogram_countsEveryCapture() {
+        RouteSearchLogWriter writer = writer(1, 1.0, 1.0);
+        writer.capture(QUERY, "memory", 6, 2_000_000);      // 2 ms
+        writer.capture(QUERY, "memory", 6, 2_000_000_000L); // 2 s, dropped
+
+        assertThat(writer.latencyHistogram().searches()).isEqualTo(2);
+        assertThat(writer.latencyHistogram().buckets())
+                .containsEntry("<5ms", 1L)
+                .containsEntry(">=1000ms", 1L);
+    }
+}
@@ -0,0 +1,128 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: RouteWatchServiceTest
+ * Purpose: Verify route watches: a subscriber gets a snapshot, then a diff
+ *          only when a network write can affect its pair.
+ * Notes: Plain JUnit (no Spring context). Repositories are TestNetworks
+ *        mocks over mutable lists; NetworkState forwards its rebuild events to the watch
+ *        service, and emitters record events instead of writing a response.
+ *        Network: A -BUS-> B -FLIGHT-> C, D -FLIGHT-> E, F and G unlinked.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteWatchServiceTest {
+
+    private final Map<String, Location> locations = new LinkedHashMap<>();
+    private final List<Transportation> legs = new CopyOnWriteArrayList<>();
+    private final NetworkState networkState;
+    private final RouteWatchService watchService;
+    private long nextLegId = 1;
+
+    RouteWatchServiceTest() {
+        for (String code : List.of("A", "B", "C", "D", "E", "F", "G")) {
+            locations.put(code, TestNetworks.location((long) locations.size() + 1, code));
+        }
+        legs.add(leg("A", "B", TransportationType.BUS));
+        legs.add(leg("B", "C", TransportationType.FLIGHT));
+        legs.add(leg("D", "E", TransportationType.FLIGHT));
+
+        RouteWatchService[] watch = new RouteWatchService[1];
+        networkState = TestNetworks.networkState(locations::values, () -> legs, event -> {
+            if (event instanceof NetworkRebuiltEvent rebuilt) watch[0].onNetworkRebuilt(rebuilt);
+        });
+        watchService = new RouteWatchService(networkState, 60_000, 10) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+        watch[0] = watchService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchService.shutdown();
+    }
+
+    /** Only the pair downstream of a write gets a diff; an unrelated write is skipped for every pair. */
+    @Test
+    void write_pushesDiffOnlyToAffectedPair() throws Exception {
+        RecordingEmitter ac = (RecordingEmitter) watchService.subscribe("A", "C", null);
+        RecordingEmitter de = (RecordingEmitter) watchService.subscribe("D", "E", null);
+        assertThat(ac.next("snapshot").added()).hasSize(1);
+        assertThat(de.next("snapshot").added()).hasSize(1);
+
+        // Affects A -> C only: a direct flight
+        write(leg("A", "C", TransportationType.FLIGHT));
+        RouteDtos.RouteDiff diff = ac.next("diff");
+        assertThat(diff.added()).hasSize(1);
+        assertThat(diff.added().get(0).legs()).hasSize(1);
+        assertThat(diff.removed()).isEmpty();
+
+        // Affects neither pair
+        write(leg("F", "G", TransportationType.BUS));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (watchService.stats().rebuildsSeen() < 2 || watchService.stats().pairsSkipped() < 3) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+
+        assertThat(ac.events).isEmpty();
+        assertThat(de.events).isEmpty();
+        assertThat(watchService.stats().pairsRecomputed()).isEqualTo(1);
+        assertThat(watchService.stats().diffsPushed()).isEqualTo(1);
+    }
+
+    // ── Fixtures ────────────────────────────────────────────────────────────
+
+    /** Add a leg and publish the change, as TransportationService does after a save. */
+    private void write(Transportation leg) {
+        legs.add(leg);
+        networkState.onNetworkChanged(new NetworkChangedEvent(
+                Set.of(leg.getOrigin().getId(), leg.getDestination().getId())));
+    }
+
+    private Transportation leg(String from, String to, TransportationType type) {
+        return TestNetworks.leg(nextLegId++, locations.get(from), locations.get(to), type);
+    }
+
+    /** Emitter that keeps (event name, payload) pairs instead of writing them to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<Map.Entry<String, RouteDtos.RouteDiff>> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String name = null;
+            RouteDtos.RouteDiff payload = null;
+            for (var part : builder.build()) {
+                if (part.getData() instanceof RouteDtos.RouteDiff diff) payload = diff;
+                else if (part.getData() instanceof String text && text.startsWith("event:")) {
+                    name = text.substring("event:".length(), text.indexOf('\n'));
+                }
+            }
+            events.add(Map.entry(name, payload));
+        }
+
+        RouteDtos.RouteDiff next(String expectedName) throws InterruptedException {
+            Map.Entry<String, RouteDtos.RouteDiff> event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("no '" + expectedName + "' event received").isNotNull();
+            assertThat(event.getKey()).isEqualTo(expectedName);
+            return event.getValue();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SeatInventoryServiceTest
+ * Purpose: Verify seat holds: all-or-nothing multi-leg reservation under
+ *          concurrency (no oversell, rollback of partial holds), expiry,
+ *          write-behind flushing and startup warm-up without request-path
+ *          database reads.
+ * Notes: Plain JUnit (no Spring context). Network: X -FLIGHT(5)-> Y
+ *        -BUS(3)-> Z; repositories are in-memory Mockito mocks.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.SeatOccupancy;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.dto.SeatDtos;
+import com.emiray.routeplanner.repository.SeatOccupancyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class SeatInventoryServiceTest {
+
+    private static final long FLIGHT = 1L;
+    private static final long BUS = 2L;
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    private final Map<String, SeatOccupancy> rows = new ConcurrentHashMap<>();
+    private final AtomicInteger pointReads = new AtomicInteger();
+    private final SeatOccupancyRepository occupancy = occupancyStub();
+    private final List<Transportation> legs = new CopyOnWriteArrayList<>();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final NetworkState networkState = networkState();
+
+    private SeatInventoryService service(long holdTtlSeconds) {
+        SeatInventoryService service = new SeatInventoryService(networkState, occupancy, holdTtlSeconds);
+        service.warm();
+        return service;
+    }
+
+    private static SeatDtos.HoldRequest hold(int seats, Long... legs) {
+        return new SeatDtos.HoldRequest(List.of(legs), DATE, seats);
+    }
+
+    /** Concurrent two-leg holds never oversell the smaller leg and leave no partial reservations. */
+    @Test
+    void concurrentMultiLegHolds_areAllOrNothing() throws Exception {
+        SeatInventoryService service = service(600);
+        int attempts = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.hold(hold(1, FLIGHT, BUS));
+                        held.incrementAndGet();
+                    } catch (ResponseStatusException ex) {
+                        if (ex.getStatusCode() == HttpStatus.CONFLICT) conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(held.get()).isEqualTo(3); // BUS capacity
+        assertThat(conflicts.get()).isEqualTo(attempts - 3);
+        assertThat(service.availability(BUS, DATE).held()).isEqualTo(3);
+        assertThat(service.availability(FLIGHT, DATE).held()).isEqualTo(3); // failed attempts rolled back
+        assertThat(service.availability(BUS, DATE).available()).isZero();
+    }
+
+    /** A hold failing on its second leg releases the seats already taken on the first. */
+    @Test
+    void partialFailure_rollsBackEarlierLegs() {
+        SeatInventoryService service = service(600);
+        service.hold(hold(3, BUS));
+
+        assertThatThrownBy(() -> service.hold(hold(2, FLIGHT, BUS)))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(service.availability(FLIGHT, DATE).held()).isZero();
+        assertThat(service.availability(FLIGHT, DATE).available()).isEqualTo(5);
+    }
+
+    /** Expired holds cannot be confirmed and are released by the sweep. */
+    @Test
+    void expiredHolds_areGoneAndReleased() throws Exception {
+        SeatInventoryService service = service(0);
+        String first = service.hold(hold(2, FLIGHT)).holdId();
+        service.hold(hold(1, FLIGHT));
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> service.confirm(first))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.GONE);
+        assertThat(service.availability(FLIGHT, DATE).held()).isEqualTo(1);
+
+        service.expireHolds();
+        assertThat(service.availability(FLIGHT, DATE).held()).isZero();
+    }
+
+    /** Confirmed seats reach seat_occupancy only on flush, and a restarted service starts from them. */
+    @Test
+    void flush_writesBehindAndWarmUpSeedsCounters() {
+        SeatInventoryService service = service(600);
+        service.confirm(service.hold(hold(2, FLIGHT, BUS)).holdId());
+        assertThat(rows).isEmpty();
+
+        service.flush();
+        assertThat(rows.get(FLIGHT + "@" + DATE).getConfirmed()).isEqualTo(2);
+        assertThat(rows.get(BUS + "@" + DATE).getConfirmed()).isEqualTo(2);
+
+        SeatInventoryService restarted = service(600);
+        int readsBefore = pointReads.get();
+        assertThatThrownBy(() -> restarted.hold(hold(2, BUS))).isInstanceOf(ResponseStatusException.class);
+        restarted.hold(hold(1, BUS));
+        assertThat(restarted.availability(BUS, DATE).confirmed()).isEqualTo(2);
+        assertThat(pointReads.get()).isEqualTo(readsBefore); // holds never read the database
+    }
+
+    /** Availability reads do not create counters, and past dates are rejected. */
+    @Test
+    void availability_isReadOnlyAndRejectsPastDates() {
+        SeatInventoryService service = service(600);
+        SeatDtos.Availability far = service.availability(FLIGHT, DATE.plusYears(3));
+        assertThat(far.available()).isEqualTo(5);
+        assertThat(far.held()).isZero();
+        assertThat(service.trackedCounters()).isZero();
+
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        assertThatThrownBy(() -> service.availability(FLIGHT, yesterday))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> service.hold(new SeatDtos.HoldRequest(List.of(FLIGHT), yesterday, 1)))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(service.trackedCounters()).isZero();
+    }
+
+    /** A hold on a leg deleted meanwhile cannot be confirmed, and releasing it leaves no negative counter. */
+    @Test
+    void deletedLeg_holdIsGoneAndNothingIsSold() {
+        SeatInventoryService service = service(600);
+        service.availability(BUS, DATE); // load the snapshot before the write
+        String holdId = service.hold(hold(2, FLIGHT, BUS)).holdId();
+
+        legs.removeIf(t -> t.getId() == BUS);
+        networkState.refresh();
+        events.stream().filter(NetworkRebuiltEvent.class::isInstance).map(NetworkRebuiltEvent.class::cast)
+                .forEach(service::onNetworkRebuilt);
+
+        assertThatThrownBy(() -> service.confirm(holdId))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.GONE);
+        assertThat(service.availability(FLIGHT, DATE).held()).isZero();
+        assertThat(service.availability(FLIGHT, DATE).confirmed()).isZero();
+
+        service.flush();
+        assertThat(rows).doesNotContainKey(BUS + "@" + DATE);
+    }
+
+    // ── Fixtures ────────────────────────────────────────────────────────────
+
+    private NetworkState networkState() {
+        Location x = TestNetworks.location(1L, "XXX");
+        Location y = TestNetworks.location(2L, "YYY");
+        Location z = TestNetworks.location(3L, "ZZZ");
+        List<Location> locations = List.of(x, y, z);
+        legs.add(TestNetworks.leg(FLIGHT, x, y, TransportationType.FLIGHT, 5));
+        legs.add(TestNetworks.leg(BUS, y, z, TransportationType.BUS, 3));
+        return TestNetworks.networkState(() -> locations, () -> legs, events::add);
+    }
+
+    /** Seat rows keyed "id@date"; point reads are counted. */
+    private SeatOccupancyRepository occupancyStub() {
+        SeatOccupancyRepository repository = mock(SeatOccupancyRepository.class, withSettings().stubOnly());
+        when(repository.findByTransportationIdAndTravelDate(any(), any())).thenAnswer(inv -> {
+            pointReads.incrementAndGet();
+            return Optional.ofNullable(rows.get(inv.getArgument(0) + "@" + inv.getArgument(1)));
+        });
+        when(repository.findByTravelDateGreaterThanEqual(any())).thenAnswer(inv -> rows.values().stream()
+                .filter(r -> !r.getTravelDate().isBefore(inv.getArgument(0))).toList());
+        when(repository.save(any())).thenAnswer(inv -> {
+            SeatOccupancy row = inv.getArgument(0);
+            rows.put(row.getTransportationId() + "@" + row.getTravelDate(), row);
+            return row;
+        });
+        return repository;
+    }
+}
@@ -0,0 +1,125 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShadowRouteComparatorTest
+ * Purpose: Verify shadow mode: matching route sets are counted as matches,
+ *          differing ones are reported with the leg-id sequences missing in
+ *          and extra in the candidate, and candidate failures as errors.
+ * Notes: Plain JUnit (no Spring context); sample rate 1.0 so every search
+ *        is compared. Comparisons run on the shadow thread, so the test
+ *        waits for the counters.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.dto.RouteDtos;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShadowRouteComparatorTest {
+
+    private static final RouteDtos.Route DIRECT = route(1L);
+    private static final RouteDtos.Route VIA_BUS = route(2L, 3L);
+    private static final RouteDtos.Route VIA_UBER = route(4L, 3L);
+
+    private final Location origin = TestNetworks.location(1L, "TAK");
+    private final Location destination = TestNetworks.location(2L, "LHR");
+    private final RouteEngine primary = engine("memory", () -> List.of(DIRECT, VIA_BUS));
+    private final List<RouteDtos.Route> candidateResult = new ArrayList<>();
+    private final RouteEngine candidate = engine("indexed", () -> {
+        if (candidateResult.isEmpty()) throw new IllegalStateException("boom");
+        return List.copyOf(candidateResult);
+    });
+    private final ShadowRouteComparator shadow = new ShadowRouteComparator(
+            new RouteEngineRegistry(List.of(primary, candidate), "memory"), "indexed", 1.0, 10);
+
+    /** Same routes in another order: a match, nothing reported. */
+    @Test
+    void sameRouteSet_isMatch() throws Exception {
+        candidateResult.addAll(List.of(VIA_BUS, DIRECT));
+        compare();
+
+        ShadowRouteComparator.Stats stats = awaitCompared(1);
+        assertThat(stats.matches()).isEqualTo(1);
+        assertThat(stats.mismatches()).isZero();
+        assertThat(stats.recentMismatches()).isEmpty();
+    }
+
+    /** A differing set is reported with the missing and extra leg-id sequences. */
+    @Test
+    void differentRouteSet_reportsMissingAndExtra() throws Exception {
+        candidateResult.addAll(List.of(DIRECT, VIA_UBER));
+        compare();
+
+        ShadowRouteComparator.Stats stats = awaitCompared(1);
+        assertThat(stats.mismatches()).isEqualTo(1);
+        assertThat(stats.recentMismatches()).singleElement().satisfies(m -> {
+            assertThat(m.primaryEngine()).isEqualTo("memory");
+            assertThat(m.candidateEngine()).isEqualTo("indexed");
+            assertThat(m.originCode()).isEqualTo("TAK");
+            assertThat(m.missingInCandidate()).containsExactly(List.of(2L, 3L));
+            assertThat(m.extraInCandidate()).containsExactly(List.of(4L, 3L));
+        });
+    }
+
+    /** A failing candidate is counted as an error, not as a comparison. */
+    @Test
+    void candidateFailure_isCountedAsError() throws Exception {
+        compare();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (shadow.stats().errors() < 1) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        assertThat(shadow.stats().sampled()).isZero();
+    }
+
+    /** The primary engine is never compared against itself. */
+    @Test
+    void candidateAsPrimary_isNotCompared() throws Exception {
+        shadow.maybeCompare(candidate, origin, destination, null, List.of(DIRECT), 1_000_000);
+        Thread.sleep(50);
+        assertThat(shadow.stats().sampled() + shadow.stats().errors()).isZero();
+    }
+
+    private void compare() {
+        shadow.maybeCompare(primary, origin, destination, LocalDate.of(2025, 1, 6),
+                primary.findRoutes(origin, destination, null, new RouteSearchTrace()), 1_000_000);
+    }
+
+    private ShadowRouteComparator.Stats awaitCompared(long n) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (shadow.stats().sampled() < n) {
+            assertThat(System.currentTimeMillis()).as("shadow comparison did not run").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        return shadow.stats();
+    }
+
+    private static RouteDtos.Route route(Long... legIds) {
+        List<RouteDtos.Leg> legs = new ArrayList<>();
+        for (Long id : legIds) legs.add(new RouteDtos.Leg(id, "X", "Y", TransportationType.FLIGHT));
+        return new RouteDtos.Route(legs);
+    }
+
+    private static RouteEngine engine(String name, Supplier<List<RouteDtos.Route>> result) {
+        return new RouteEngine() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<RouteDtos.Route> findRoutes(Location origin, Location destination, LocalDate date,
+                                                    RouteSearchTrace trace) {
+                return result.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: ShardedRouteEngineTest
+ * Purpose: Verify the scatter-gather deadline and error mapping: both shard
+ *          fetches share one timeout, a failure cancels the other fetch, and
+ *          client errors answer 502/504 instead of 500.
+ * Notes: Plain JUnit with Mockito; ShardService answers are delayed or fail.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.dto.ShardDtos;
+import com.emiray.routeplanner.repository.TransportationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardedRouteEngineTest {
+
+    private static final long TIMEOUT_MS = 400;
+
+    private final ShardService shards = mock(ShardService.class);
+    private final ShardedRouteEngine engine =
+            new ShardedRouteEngine(shards, mock(TransportationRepository.class), TIMEOUT_MS, 2);
+    private final Location origin = TestNetworks.location(1L, "TAK", "TR");
+    private final Location destination = TestNetworks.location(2L, "WEM", "UK");
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    /** A slow second fetch fails at one deadline, not after the first fetch plus another full timeout. */
+    @Test
+    void slowShard_failsAtSingleDeadline() {
+        when(shards.groundLinks(origin, ShardDtos.Direction.OUT)).thenAnswer(inv -> sleep(350));
+        when(shards.groundLinks(destination, ShardDtos.Direction.IN)).thenAnswer(inv -> sleep(5_000));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> search())
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("UK")
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(700);
+    }
+
+    /** An unreachable peer is a 502, and the other fetch is cancelled. */
+    @Test
+    void failingShard_isBadGatewayAndCancelsOtherFetch() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(shards.groundLinks(origin, ShardDtos.Direction.OUT)).thenAnswer(inv -> {
+            started.await(1, TimeUnit.SECONDS); // fail only once the other fetch is running
+            throw new ResourceAccessException("Connection refused");
+        });
+        when(shards.groundLinks(destination, ShardDtos.Direction.IN)).thenAnswer(inv -> {
+            started.countDown();
+            try {
+                return sleep(5_000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw ex;
+            }
+        });
+
+        assertThatThrownBy(() -> search())
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("TR")
+                .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).as("other fetch cancelled").isTrue();
+    }
+
+    /** Fetches run in parallel: two fetches each under the timeout succeed together. */
+    @Test
+    void parallelFetches_completeWithinTimeout() {
+        when(shards.groundLinks(origin, ShardDtos.Direction.OUT)).thenAnswer(inv -> sleep(250));
+        when(shards.groundLinks(destination, ShardDtos.Direction.IN)).thenAnswer(inv -> sleep(250));
+
+        assertThat(search()).isEmpty();
+    }
+
+    private List<?> search() {
+        return engine.findRoutes(origin, destination, null, new RouteSearchTrace());
+    }
+
+    private static List<ShardDtos.GroundLink> sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return List.of();
+    }
+}
@@ -0,0 +1,55 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: SlowQueryLogTest
+ * Purpose: Verify the slow-query log: searches under the threshold are not
+ *          kept, the oldest entry is evicted at capacity, and worst() orders
+ *          by duration.
+ * Notes: Plain JUnit (no Spring context); durations come from real traces,
+ *        so slow searches are simulated with short sleeps.
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    /** Fast searches stay out of the log. */
+    @Test
+    void belowThreshold_isNotRecorded() {
+        SlowQueryLog log = new SlowQueryLog(60_000, 10);
+        log.record(new RouteQuery("TAK", "WEM", null), "memory", new RouteSearchTrace(), 6);
+        assertThat(log.worst(10)).isEmpty();
+        assertThat(log.thresholdMillis()).isEqualTo(60_000);
+    }
+
+    /** At capacity the oldest entry goes; the rest are listed slowest first. */
+    @Test
+    void atCapacity_oldestIsEvictedAndWorstFirst() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(0, 2);
+        record(log, "AAA", 30);
+        record(log, "BBB", 1);
+        record(log, "CCC", 15);
+
+        assertThat(log.worst(10)).extracting(SlowQueryLog.Entry::originCode).containsExactly("CCC", "BBB");
+        assertThat(log.worst(1)).extracting(SlowQueryLog.Entry::originCode).containsExactly("CCC");
+        assertThat(log.worst(-1)).isEmpty();
+
+        SlowQueryLog.Entry entry = log.worst(1).get(0);
+        assertThat(entry.engine()).isEqualTo("memory");
+        assertThat(entry.candidates()).isEqualTo(7);
+        assertThat(entry.results()).isEqualTo(3);
+        assertThat(entry.totalMillis()).isGreaterThanOrEqualTo(15.0);
+
+        log.clear();
+        assertThat(log.worst(10)).isEmpty();
+    }
+
+    private static void record(SlowQueryLog log, String origin, long millis) throws InterruptedException {
+        RouteSearchTrace trace = new RouteSearchTrace();
+        Thread.sleep(millis);
+        trace.mark(RouteSearchTrace.Phase.ENUMERATE);
+        trace.candidates(7);
+        log.record(new RouteQuery(origin, "LHR", null), "memory", trace, 3);
+    }
+}
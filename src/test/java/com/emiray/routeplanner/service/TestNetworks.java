@@ -0,0 +1,102 @@
+/* ──────────────────────────────────────────────────────────────────────────
+ * Title: TestNetworks
+ * Purpose: Shared fixtures for plain-JUnit service tests: locations, legs and
+ *          in-memory repository mocks that NetworkState (and the brute-force
+ *          engine) load from.
+ * Notes: Repositories are stub-only Mockito mocks (no invocation recording,
+ *        so benchmarks do not accumulate state). Row suppliers are read on
+ *        every call, so tests may mutate their lists between rebuilds.
+ *        Unstubbed methods answer Mockito defaults (empty/null).
+ * ────────────────────────────────────────────────────────────────────────── */
+package com.emiray.routeplanner.service;
+
+import com.emiray.routeplanner.domain.Location;
+import com.emiray.routeplanner.domain.Transportation;
+import com.emiray.routeplanner.domain.TransportationType;
+import com.emiray.routeplanner.repository.LocationRepository;
+import com.emiray.routeplanner.repository.TransportationRepository;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+final class TestNetworks {
+
+    private TestNetworks() {
+    }
+
+    // ── Entities ────────────────────────────────────────────────────────────
+
+    static Location location(Long id, String code) {
+        return location(id, code, "TR");
+    }
+
+    /** Location whose name and city are its code. */
+    static Location location(Long id, String code, String country) {
+        Location l = new Location();
+        l.setId(id);
+        l.setLocationCode(code);
+        l.setName(code);
+        l.setCountry(country);
+        l.setCity(code);
+        return l;
+    }
+
+    static Transportation leg(Long id, Location from, Location to, TransportationType type) {
+        return leg(id, from, to, type, null);
+    }
+
+    static Transportation leg(Long id, Location from, Location to, TransportationType type, Integer capacity) {
+        Transportation t = new Transportation();
+        t.setId(id);
+        t.setOrigin(from);
+        t.setDestination(to);
+        t.setType(type);
+        t.setCapacity(capacity);
+        return t;
+    }
+
+    // ── Repositories ────────────────────────────────────────────────────────
+
+    /** Answers findAll and findAllById from the supplied rows. */
+    static LocationRepository locations(Supplier<? extends Collection<Location>> rows) {
+        LocationRepository repository = mock(LocationRepository.class, withSettings().stubOnly());
+        when(repository.findAll()).thenAnswer(inv -> List.copyOf(rows.get()));
+        when(repository.findAllById(any())).thenAnswer(inv -> {
+            Set<Object> ids = new HashSet<>();
+            inv.<Iterable<?>>getArgument(0).forEach(ids::add);
+            return rows.get().stream().filter(l -> ids.contains(l.getId())).toList();
+        });
+        return repository;
+    }
+
+    /** Answers findAll, findAllWithEndpoints and findAllTouching from the supplied rows. */
+    static TransportationRepository transportations(Supplier<? extends Collection<Transportation>> rows) {
+        TransportationRepository repository = mock(TransportationRepository.class, withSettings().stubOnly());
+        when(repository.findAll()).thenAnswer(inv -> List.copyOf(rows.get()));
+        when(repository.findAllWithEndpoints()).thenAnswer(inv -> List.copyOf(rows.get()));
+        when(repository.findAllTouching(anyCollection())).thenAnswer(inv -> {
+            Collection<?> ids = inv.getArgument(0);
+            return rows.get().stream()
+                    .filter(t -> ids.contains(t.getOrigin().getId()) || ids.contains(t.getDestination().getId()))
+                    .toList();
+        });
+        return repository;
+    }
+
+    /** Per-weekday snapshot state over the given rows, never evicted. */
+    static NetworkState networkState(Supplier<? extends Collection<Location>> locations,
+                                     Supplier<? extends Collection<Transportation>> legs,
+                                     ApplicationEventPublisher events) {
+        return new NetworkState(locations(locations), transportations(legs), events, Long.MAX_VALUE, 1024, true);
+    }
+}